@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the per-frame interpolation math of {@link TimeInterpolator}, simulating a client
+ * rendering three frames per tick while the server advances time at {@code timeSpeed}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeInterpolatorBenchmark {
+
+    private static final int FRAMES_PER_TICK = 3;
+    private static final float FRAME_TIME = 1F / FRAMES_PER_TICK;
+
+    @Param({"1", "60"})
+    private long timeSpeed;
+
+    private TimeInterpolator interpolator;
+    private long time;
+    private long targetTime;
+    private int frame;
+
+    @Setup
+    public void setup() {
+        // The level is only accessed by the render and tick handlers, not by interpolate().
+        interpolator = new TimeInterpolator(null);
+        time = 0;
+        targetTime = 0;
+        frame = 0;
+    }
+
+    @Benchmark
+    public long interpolate() {
+        if (++frame == FRAMES_PER_TICK) {
+            frame = 0;
+            targetTime += timeSpeed;
+        }
+        time = interpolator.interpolate(time, targetTime, FRAME_TIME);
+        return time;
+    }
+
+}
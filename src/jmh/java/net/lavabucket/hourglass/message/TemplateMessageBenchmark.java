@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.message;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link TemplateMessage#bake()} with the default enter bed message, which is baked
+ * every time a player enters or leaves a bed, with changed and unchanged variables, and with the
+ * template compiled for every message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateMessageBenchmark {
+
+    private static final String TEMPLATE =
+            "${player} is now sleeping. [${sleepingPlayers}/${totalPlayers}]";
+
+    private TemplateMessage message;
+    private int sleepingPlayers;
+
+    private CompiledTemplate compiled;
+    private StringBuilder builder;
+    private String[] strings;
+    private long[] numbers;
+    private boolean[] isNumber;
+
+    @Setup
+    public void setup() {
+        message = new TemplateMessage().setTemplate(TEMPLATE);
+
+        compiled = CompiledTemplate.compile(TEMPLATE);
+        builder = new StringBuilder();
+        strings = new String[] { "Steve", null, null };
+        numbers = new long[] { 0, 0, 20 };
+        isNumber = new boolean[] { false, true, true };
+    }
+
+    @Benchmark
+    public TemplateMessage bake() {
+        sleepingPlayers = (sleepingPlayers + 1) % 20;
+        return message
+                .setVariable("player", "Steve")
+                .setVariable("sleepingPlayers", sleepingPlayers)
+                .setVariable("totalPlayers", 20)
+                .setVariable("sleepingPercentage", sleepingPlayers * 5)
+                .bake();
+    }
+
+    @Benchmark
+    public TemplateMessage bakeUnchanged() {
+        return message
+                .setVariable("player", "Steve")
+                .setVariable("sleepingPlayers", 1)
+                .setVariable("totalPlayers", 20)
+                .setVariable("sleepingPercentage", 5)
+                .bake();
+    }
+
+    @Benchmark
+    public TemplateMessage create() {
+        return new TemplateMessage().setTemplate(TEMPLATE)
+                .setVariable("player", "Steve")
+                .setVariable("sleepingPlayers", 1)
+                .setVariable("totalPlayers", 20)
+                .setVariable("sleepingPercentage", 5)
+                .bake();
+    }
+
+    @Benchmark
+    public StringBuilder render() {
+        sleepingPlayers = (sleepingPlayers + 1) % 20;
+        builder.setLength(0);
+        numbers[1] = sleepingPlayers;
+        return compiled.render(builder, strings, numbers, isNumber);
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks the arithmetic of {@link Time}, which runs several times per tick. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeBenchmark {
+
+    private Time time = new Time(1_234_567L, 0.25);
+    private Time delta = new Time(3.75);
+    private double speed = 2.5;
+
+    @Benchmark
+    public Time add() {
+        return time.add(delta);
+    }
+
+    @Benchmark
+    public Time addDouble() {
+        return time.add(speed);
+    }
+
+    @Benchmark
+    public Time subtract() {
+        return time.subtract(delta);
+    }
+
+    @Benchmark
+    public double divide() {
+        return time.divide(delta);
+    }
+
+    @Benchmark
+    public Time timeOfDay() {
+        return time.timeOfDay();
+    }
+
+    @Benchmark
+    public boolean betweenMod() {
+        return TimeService.NIGHT_START.betweenMod(time.timeOfDay(), time.add(delta).timeOfDay());
+    }
+
+    @Benchmark
+    public boolean crossedMorning() {
+        return Time.crossedMorning(time, time.add(delta));
+    }
+
+}
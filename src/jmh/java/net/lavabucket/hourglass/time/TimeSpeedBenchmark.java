@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.concurrent.TimeUnit;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+
+/**
+ * Benchmarks {@link TimeService#getTimeSpeed(Time)} and
+ * {@link TimeEngine#correctForOvershoot(TimeConfig, Time, Time, double)} against a stub level,
+ * using the default server config and a fixed number of sleeping players.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeSpeedBenchmark {
+
+    private static final int ACTIVE_PLAYERS = 10;
+
+    @Param({"0", "5", "10"})
+    private int sleepingPlayers;
+
+    private TimeService service;
+    private TimeConfig config;
+    private Time day = new Time(6000);
+    private Time night = new Time(18000);
+    private Time beforeMorning = new Time(23990);
+    private Time delta = new Time(20);
+
+    @Setup
+    public void setup() {
+        // Load the default server config without a file.
+        CommentedConfig config = CommentedConfig.inMemory();
+        SERVER_CONFIG.spec.correct(config);
+        SERVER_CONFIG.spec.setConfig(config);
+
+        ServerLevelWrapper level = Mockito.mock(ServerLevelWrapper.class);
+        service = new TimeService(level);
+        service.sleepStatus.activePlayerCount = ACTIVE_PLAYERS;
+        service.sleepStatus.sleepingPlayerCount = sleepingPlayers;
+        config = TimeConfig.capture(service.governor);
+    }
+
+    @Benchmark
+    public double timeSpeedDay() {
+        return service.getTimeSpeed(day);
+    }
+
+    @Benchmark
+    public double timeSpeedNight() {
+        return service.getTimeSpeed(night);
+    }
+
+    @Benchmark
+    public Time correctForOvershootNoBreakpoint() {
+        return service.engine.correctForOvershoot(config, night, delta, 1);
+    }
+
+    @Benchmark
+    public Time correctForOvershootMorning() {
+        return service.engine.correctForOvershoot(config, beforeMorning, delta, 1);
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeConfig;
+
+/**
+ * Benchmarks the headless {@link TimeSimulator}: single ticks across a full day, and whole nights
+ * for a range of sleeping player ratios.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeSimulatorBenchmark {
+
+    private static final int ACTIVE_PLAYERS = 10;
+
+    @Param({"0", "1", "5", "10"})
+    private int sleepingPlayers;
+
+    private TimeSimulator simulator;
+
+    @Setup
+    public void setup() {
+        simulator = new TimeSimulator(TimeConfig.DEFAULT);
+        simulator.getLevel().setPlayers(sleepingPlayers, ACTIVE_PLAYERS);
+    }
+
+    @Benchmark
+    public Time tick() {
+        if (simulator.getLevel().allAwake() && sleepingPlayers > 0) {
+            simulator.getLevel().setPlayers(sleepingPlayers, ACTIVE_PLAYERS);
+        }
+        return simulator.tick();
+    }
+
+    @Benchmark
+    public TimeSimulator.NightResult night() {
+        return simulator.simulateNight(sleepingPlayers, ACTIVE_PLAYERS, Time.DAY_TICKS);
+    }
+
+}
@@ -23,9 +23,15 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
 import net.lavabucket.hourglass.command.HourglassCommand;
+import net.lavabucket.hourglass.config.ConfigPersistence;
 import net.lavabucket.hourglass.config.ConfigSynchronizer;
 import net.lavabucket.hourglass.config.HourglassConfig;
 import net.lavabucket.hourglass.message.HourglassMessages;
+import net.lavabucket.hourglass.message.MessageDelivery;
+import net.lavabucket.hourglass.message.SleepNotificationAggregator;
+import net.lavabucket.hourglass.metrics.MetricsExporter;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.network.HourglassNetwork;
 import net.lavabucket.hourglass.registry.TimeEffects;
 import net.lavabucket.hourglass.time.TimeServiceManager;
 import net.minecraftforge.api.distmarker.Dist;
@@ -51,11 +57,22 @@ public class Hourglass {
 
         modBus.register(HourglassConfig.class);
         modBus.register(ConfigSynchronizer.class);
+        modBus.register(ConfigPersistence.class);
         modBus.register(TimeEffects.class);
 
+        HourglassNetwork.register();
+
         forgeBus.register(TimeServiceManager.class);
         forgeBus.register(HourglassMessages.class);
+        forgeBus.register(SleepNotificationAggregator.class);
+        forgeBus.register(MessageDelivery.class);
         forgeBus.register(HourglassCommand.class);
+        forgeBus.register(MetricsExporter.class);
+        forgeBus.register(NetworkTelemetry.class);
+        forgeBus.addListener(ConfigSynchronizer::onPlayerLoggedIn);
+        forgeBus.addListener(ConfigSynchronizer::onServerTick);
+        forgeBus.addListener(ConfigSynchronizer::onServerStopping);
+        forgeBus.addListener(ConfigPersistence::onServerStopped);
 
         DistExecutor.safeRunWhenOn(Dist.CLIENT, () -> HourglassClient::new);
     }
@@ -19,6 +19,7 @@
 
 package net.lavabucket.hourglass;
 
+import net.lavabucket.hourglass.client.MorningEtaReceiver;
 import net.lavabucket.hourglass.client.TimeInterpolator;
 import net.lavabucket.hourglass.client.gui.ConfigScreen;
 import net.lavabucket.hourglass.client.gui.SleepGui;
@@ -44,6 +45,7 @@ public class HourglassClient {
 
         forgeBus.register(SleepGui.class);
         forgeBus.register(TimeInterpolator.class);
+        forgeBus.register(MorningEtaReceiver.class);
     }
 
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.client;
+
+import net.lavabucket.hourglass.time.MorningEtaPacket;
+import net.lavabucket.hourglass.time.MorningEtaSynchronizer;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * This class holds the morning estimate last received from the server, which is sent to sleeping
+ * players by {@link MorningEtaSynchronizer}, and remembers when the estimate became available so
+ * that the progress towards morning can be displayed.
+ */
+public class MorningEtaReceiver {
+
+    private static long morningGameTime = MorningEtaPacket.NONE;
+    private static long startGameTime = MorningEtaPacket.NONE;
+
+    /**
+     * Applies a morning estimate received from the server.
+     * @param packet  the packet received from the server
+     */
+    public static void onEtaPacket(MorningEtaPacket packet) {
+        Minecraft minecraft = Minecraft.getInstance();
+        if (packet.morningGameTime() == MorningEtaPacket.NONE || minecraft.level == null) {
+            clear();
+            return;
+        }
+
+        if (morningGameTime == MorningEtaPacket.NONE) {
+            startGameTime = minecraft.level.getGameTime();
+        }
+        morningGameTime = packet.morningGameTime();
+    }
+
+    /**
+     * Event listener that is called when the client leaves a server. Discards the morning estimate
+     * received from the server.
+     *
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        clear();
+    }
+
+    /**
+     * {@return the game time of the next morning last received from the server, or
+     * {@link MorningEtaPacket#NONE} if there is no estimate}
+     */
+    public static long getMorningGameTime() {
+        return morningGameTime;
+    }
+
+    /**
+     * {@return the game time at which the current estimate first became available, or
+     * {@link MorningEtaPacket#NONE} if there is no estimate}
+     */
+    public static long getStartGameTime() {
+        return startGameTime;
+    }
+
+    private static void clear() {
+        morningGameTime = MorningEtaPacket.NONE;
+        startGameTime = MorningEtaPacket.NONE;
+    }
+
+}
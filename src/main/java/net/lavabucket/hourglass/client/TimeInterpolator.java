@@ -34,6 +34,11 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
  */
 public class TimeInterpolator {
 
+    /** Time updates larger than this are treated as time skips and animated over a longer period. */
+    public static final long SKIP_THRESHOLD = 1200;
+    /** The number of ticks over which time skips are animated. */
+    public static final float SKIP_INTERPOLATION_TICKS = 40F;
+
     /** The current {@code TimeInterpolator} instance running. */
     public static TimeInterpolator instance;
 
@@ -44,6 +49,7 @@ public class TimeInterpolator {
     private float timeVelocity;
     private long lastTime;
     private float lastPartialTickTime;
+    private float interpolationDuration = 1F;
 
     /**
      * Event listener that is called when a new level is loaded.
@@ -174,10 +180,21 @@ public class TimeInterpolator {
      *                       Measured in fractions of ticks.
      */
     private void interpolateTime(final float tickTimeDelta) {
-        long time = level.get().getDayTime();
+        setDayTime(interpolate(level.get().getDayTime(), targetTime, tickTimeDelta));
+    }
 
-        final float duration = 1f; // Interpolate over 1 tick.
-        final float omega = 2F / duration;
+    /**
+     * Moves {@code time} towards {@code targetTime} using a critically damped spring, updating the
+     * velocity of the spring. Does not access the level, so it can be benchmarked in isolation.
+     *
+     * @param time  the current time
+     * @param targetTime  the time to move towards
+     * @param tickTimeDelta  the amount of time that has passed since the last frame, measured in
+     *                       fractions of ticks
+     * @return the new time
+     */
+    long interpolate(long time, long targetTime, final float tickTimeDelta) {
+        final float omega = 2F / interpolationDuration;
         final float x = omega * tickTimeDelta;
         final float exp = 1F / (1F + x + 0.48F * x * x + 0.235F * x * x * x);
         final float change = time - targetTime;
@@ -190,9 +207,10 @@ public class TimeInterpolator {
         if (change < 0.0F == time > targetTime) {
             time = targetTime;
             timeVelocity = 0.0F;
+            interpolationDuration = 1F;
         }
 
-        setDayTime(time);
+        return time;
     }
 
     /**
@@ -202,7 +220,9 @@ public class TimeInterpolator {
      * to where it was originally, and then updates the interpolation target time instead.
      *
      * To prevent interpolation distances larger than a single day (which could be jarring) this
-     * method jumps to same day as the interpolation target and interpolates from there.
+     * method jumps to same day as the interpolation target and interpolates from there. Updates
+     * larger than {@link #SKIP_THRESHOLD} are interpolated over {@link #SKIP_INTERPOLATION_TICKS}
+     * instead of a single tick so that the sky visibly moves to the new time.
      */
     private void updateTargetTime() {
         long time = level.get().getDayTime();
@@ -219,6 +239,11 @@ public class TimeInterpolator {
                 lastTime = time - newTimeOfDay + oldTimeOfDay;
             }
 
+            // Animate time skips instead of jumping to them.
+            if (Math.abs(time - lastTime) > SKIP_THRESHOLD) {
+                interpolationDuration = SKIP_INTERPOLATION_TICKS;
+            }
+
             level.get().setDayTime(lastTime);
         }
     }
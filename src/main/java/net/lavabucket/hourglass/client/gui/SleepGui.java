@@ -24,10 +24,14 @@ import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 
+import net.lavabucket.hourglass.client.MorningEtaReceiver;
+import net.lavabucket.hourglass.time.MorningEtaPacket;
+import net.lavabucket.hourglass.wrappers.TextWrapper;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screens.InBedChatScreen;
 import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.network.chat.Component;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraftforge.client.event.ScreenEvent;
@@ -42,6 +46,9 @@ public class SleepGui {
 
     private static ItemStack clock = new ItemStack(Items.CLOCK);
 
+    // The height of the morning estimate, including its progress bar
+    private static final int ETA_HEIGHT = 13;
+
     /**
      * Event listener that is called once per client tick. Updates the clock texture to prevent
      * clock wobble when getting in bed.
@@ -112,6 +119,45 @@ public class SleepGui {
         }
 
         renderClock(guiGraphics, x, y, scale);
+
+        // Place the estimate below the clock, or above it if there is no room below.
+        float etaY = y + scale + ETA_HEIGHT > screen.height ? y - ETA_HEIGHT : y + scale + 2;
+        renderMorningEta(guiGraphics, x + scale / 2F, etaY, scale);
+    }
+
+    /**
+     * Renders the time left until morning, counted down from the estimate last received from the
+     * server, and a bar showing the progress towards it. Renders nothing if no estimate is
+     * available.
+     *
+     * @param guiGraphics  the graphics used for rendering
+     * @param centerX  the x coordinate of the center of the estimate
+     * @param y  the y coordinate of the top of the estimate
+     * @param width  the width of the progress bar
+     */
+    public static void renderMorningEta(GuiGraphics guiGraphics, float centerX, float y, int width) {
+        Minecraft minecraft = Minecraft.getInstance();
+        long morningGameTime = MorningEtaReceiver.getMorningGameTime();
+        if (morningGameTime == MorningEtaPacket.NONE || minecraft.level == null) {
+            return;
+        }
+
+        long gameTime = minecraft.level.getGameTime();
+        long startGameTime = Math.min(gameTime, MorningEtaReceiver.getStartGameTime());
+        long remaining = Math.max(0, morningGameTime - gameTime);
+        long total = Math.max(1, morningGameTime - startGameTime);
+        float progress = 1F - Math.min(1F, remaining / (float) total);
+
+        long seconds = remaining / 20;
+        String time = String.format("%d:%02d", seconds / 60, seconds % 60);
+        Component text = TextWrapper.translation("hourglass.sleepgui.morningEta", time).get();
+        int textX = (int) centerX - minecraft.font.width(text) / 2;
+        guiGraphics.drawString(minecraft.font, text, textX, (int) y, 0xFFFFFF);
+
+        int barX = (int) centerX - width / 2;
+        int barY = (int) y + minecraft.font.lineHeight + 1;
+        guiGraphics.fill(barX, barY, barX + width, barY + 2, 0x80000000);
+        guiGraphics.fill(barX, barY, barX + (int) (width * progress), barY + 2, 0xFFFFFFFF);
     }
 
     /**
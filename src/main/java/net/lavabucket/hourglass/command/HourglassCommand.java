@@ -21,6 +21,14 @@ package net.lavabucket.hourglass.command;
 
 import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
 
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
@@ -29,6 +37,10 @@ import com.mojang.brigadier.context.CommandContext;
 import net.lavabucket.hourglass.command.config.ConfigCommand;
 import net.lavabucket.hourglass.command.config.ConfigCommandEntry;
 import net.lavabucket.hourglass.config.ConfigSynchronizer;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.profiling.RollingHistogram;
+import net.lavabucket.hourglass.time.LoadGovernor;
+import net.lavabucket.hourglass.time.Time;
 import net.lavabucket.hourglass.time.TimeService;
 import net.lavabucket.hourglass.time.TimeServiceManager;
 import net.lavabucket.hourglass.time.effects.EffectCondition;
@@ -36,6 +48,7 @@ import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
 import net.lavabucket.hourglass.wrappers.TextWrapper;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.TimeArgument;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
@@ -59,22 +72,40 @@ public class HourglassCommand {
                 .setQuerySuccessHandler(HourglassCommand::onQuerySuccess)
                 .setModifySuccessHandler(HourglassCommand::onModifySuccess)
                 .setModifyFailureHandler(HourglassCommand::onModifyFailure)
+                .setBatchModifySuccessHandler(HourglassCommand::onBatchModifySuccess)
+                .setBatchModifyFailureHandler(HourglassCommand::onBatchModifyFailure)
+                .setPresetSupplier(HourglassCommand::getConfigPresets)
                 .register(SERVER_CONFIG.daySpeed, TIME_SPEED_ARGUMENT)
                 .register(SERVER_CONFIG.nightSpeed, TIME_SPEED_ARGUMENT)
+                .register(SERVER_CONFIG.wallClockTime)
+                .register(SERVER_CONFIG.maxCatchUpTicks, DoubleArgumentType.doubleArg(1, 1200))
                 .register(SERVER_CONFIG.enableSleepFeature)
                 .register(SERVER_CONFIG.sleepSpeedMin, TIME_SPEED_ARGUMENT)
                 .register(SERVER_CONFIG.sleepSpeedMax, TIME_SPEED_ARGUMENT)
                 .register(SERVER_CONFIG.sleepSpeedAll, DoubleArgumentType.doubleArg(-1, 24000))
                 .register(SERVER_CONFIG.sleepSpeedCurve, DoubleArgumentType.doubleArg(0, 1))
+                .register(SERVER_CONFIG.instantSleep)
                 .register(SERVER_CONFIG.clearWeatherOnWake)
                 .register(SERVER_CONFIG.displayBedClock)
+                .register(SERVER_CONFIG.messageCoalesceTicks, IntegerArgumentType.integer(0, 200))
                 .register(SERVER_CONFIG.allowDaySleep)
                 .register(SERVER_CONFIG.weatherEffect, EffectCondition.class)
                 .register(SERVER_CONFIG.randomTickEffect, EffectCondition.class)
                 .register(SERVER_CONFIG.baseRandomTickSpeed, IntegerArgumentType.integer(0))
                 .register(SERVER_CONFIG.potionEffect, EffectCondition.class)
                 .register(SERVER_CONFIG.hungerEffect, EffectCondition.class)
-                .register(SERVER_CONFIG.blockEntityEffect, EffectCondition.class);
+                .register(SERVER_CONFIG.blockEntityEffect, EffectCondition.class)
+                .register(SERVER_CONFIG.entityEffect, EffectCondition.class)
+                .register(SERVER_CONFIG.entityEffectRadius, IntegerArgumentType.integer(0, 512))
+                .register(SERVER_CONFIG.entityEffectBudget, IntegerArgumentType.integer(1, 1000000))
+                .register(SERVER_CONFIG.scheduledTickEffect, EffectCondition.class)
+                .register(SERVER_CONFIG.scheduledTickEffectRadius, IntegerArgumentType.integer(0, 512))
+                .register(SERVER_CONFIG.scheduledTickEffectBudget, IntegerArgumentType.integer(1, 1000000))
+                .register(SERVER_CONFIG.enableGovernor)
+                .register(SERVER_CONFIG.governorTargetTickTime, DoubleArgumentType.doubleArg(1, 1000))
+                .register(SERVER_CONFIG.governorSleepSpeedCap, DoubleArgumentType.doubleArg(1, 24000))
+                .register(SERVER_CONFIG.enableNetworkTelemetry)
+                .register(SERVER_CONFIG.idleFastPath);
 
         event.getDispatcher().register(
                 Commands.literal("hourglass").requires(source -> source.hasPermission(2))
@@ -86,6 +117,28 @@ public class HourglassCommand {
                             .executes(HourglassCommand::onTimeSpeedQuery))
                         .then(Commands.literal("sleeperCount")
                             .executes(HourglassCommand::onSleeperCountQuery))
+                        .then(Commands.literal("morningEta")
+                            .executes(HourglassCommand::onMorningEtaQuery))
+                        .then(Commands.literal("governor")
+                            .executes(HourglassCommand::onGovernorQuery))
+                        .then(Commands.literal("network")
+                            .executes(HourglassCommand::onNetworkQuery)
+                            .then(Commands.literal("players")
+                                .executes(HourglassCommand::onNetworkPlayersQuery)))
+                    )
+
+                    .then(Commands.literal("profile")
+                        .then(Commands.literal("start")
+                            .executes(HourglassCommand::onProfileStart))
+                        .then(Commands.literal("stop")
+                            .executes(HourglassCommand::onProfileStop))
+                        .then(Commands.literal("report")
+                            .executes(HourglassCommand::onProfileReport))
+                    )
+
+                    .then(Commands.literal("skip")
+                        .then(Commands.argument("duration", TimeArgument.time())
+                            .executes(HourglassCommand::onSkip))
                     )
                 );
     }
@@ -114,9 +167,9 @@ public class HourglassCommand {
      * @param entry  the entry that was modified by the user
      */
     public static <T> void onModifySuccess(CommandContext<CommandSourceStack> context, ConfigCommandEntry<T> entry) {
-        // Force a config sync, as the file watcher does not always catch the change. This may
-        // cause the config update to send twice.
-        ConfigSynchronizer.syncConfigWithClients();
+        // Request a config sync, as the file watcher does not always catch the change. The request
+        // is merged with the one made by the file watcher if it does.
+        ConfigSynchronizer.requestSync();
 
         TextWrapper response = TextWrapper.translation("commands.hourglass.config.set",
                 entry.getIdentifier(),
@@ -140,6 +193,53 @@ public class HourglassCommand {
         context.getSource().sendFailure(response.get());
     }
 
+    /**
+     * Handles a successful ConfigCommand 'set' or 'preset' command. Requests a single config sync
+     * for all modified values and informs the user of the new values.
+     *
+     * @param context  the context from the command
+     * @param entries  the entries that were modified by the user
+     */
+    public static void onBatchModifySuccess(CommandContext<CommandSourceStack> context,
+            List<ConfigCommandEntry<?>> entries) {
+        ConfigSynchronizer.requestSync();
+
+        String values = entries.stream()
+                .map(entry -> entry.getIdentifier() + "=" + entry.getConfigValue().get())
+                .collect(Collectors.joining(", "));
+        TextWrapper response = TextWrapper.translation("commands.hourglass.config.setAll",
+                entries.size(), values);
+        context.getSource().sendSuccess(response, true);
+    }
+
+    /**
+     * Handles a failed ConfigCommand 'set' or 'preset' command. Informs the user of the failure.
+     *
+     * @param context  the context from the command
+     * @param text  the assignment or preset name that could not be applied
+     */
+    public static void onBatchModifyFailure(CommandContext<CommandSourceStack> context,
+            String text) {
+        TextWrapper response = TextWrapper.translation("commands.hourglass.config.setAll.failure",
+                text);
+        context.getSource().sendFailure(response.get());
+    }
+
+    /**
+     * {@return the config presets defined in the server config, by name}
+     */
+    public static Map<String, String> getConfigPresets() {
+        Map<String, String> presets = new LinkedHashMap<>();
+        for (String preset : SERVER_CONFIG.configPresets.get()) {
+            int separator = preset.indexOf(':');
+            if (separator > 0) {
+                presets.put(preset.substring(0, separator).trim(),
+                        preset.substring(separator + 1).trim());
+            }
+        }
+        return presets;
+    }
+
     /**
      * Handles a time speed query command.
      * @param context  the command context
@@ -156,6 +256,7 @@ public class HourglassCommand {
             return 0;
         }
 
+        service.catchUpIdleTime();
         TextWrapper response = TextWrapper.translation(
                 "commands.hourglass.query.timeSpeed.success",
                 service.getTimeSpeed(service.getDayTime()));
@@ -188,4 +289,237 @@ public class HourglassCommand {
         return Command.SINGLE_SUCCESS;
     }
 
+    /**
+     * Handles a morning estimate query command.
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onMorningEtaQuery(CommandContext<CommandSourceStack> context) {
+        ServerLevelWrapper wrapper = new ServerLevelWrapper(context.getSource().getLevel());
+        TimeService service = TimeServiceManager.service;
+
+        if (service == null || !service.managesLevel(wrapper)) {
+            TextWrapper response = TextWrapper.translation(
+                    "commands.hourglass.query.levelNotApplicable");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        service.catchUpIdleTime();
+        long ticks = service.getTicksUntilMorning();
+        TextWrapper response = ticks < 0
+                ? TextWrapper.translation("commands.hourglass.query.morningEta.never")
+                : TextWrapper.translation("commands.hourglass.query.morningEta.success",
+                        String.format("%.1f", ticks / 20D), ticks);
+        context.getSource().sendSuccess(response, false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a load governor query command. Reports the current stage followed by the recent
+     * stage transitions.
+     *
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onGovernorQuery(CommandContext<CommandSourceStack> context) {
+        ServerLevelWrapper wrapper = new ServerLevelWrapper(context.getSource().getLevel());
+        TimeService service = TimeServiceManager.service;
+
+        if (service == null || !service.managesLevel(wrapper)) {
+            TextWrapper response = TextWrapper.translation(
+                    "commands.hourglass.query.levelNotApplicable");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        LoadGovernor governor = service.governor;
+        TextWrapper response = TextWrapper.translation(
+                "commands.hourglass.query.governor.success",
+                governor.getStage(),
+                String.format("%.2f", governor.getAverageTickTime()));
+        context.getSource().sendSuccess(response, false);
+
+        for (LoadGovernor.Transition transition : governor.getHistory()) {
+            TextWrapper line = TextWrapper.translation(
+                    "commands.hourglass.query.governor.transition",
+                    transition.gameTime(),
+                    transition.from(),
+                    transition.to(),
+                    String.format("%.2f", transition.averageTickTime()));
+            context.getSource().sendSuccess(line, false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a network query command. Reports the packet and byte rates of every traffic
+     * category, followed by the totals of each channel.
+     *
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onNetworkQuery(CommandContext<CommandSourceStack> context) {
+        if (!NetworkTelemetry.isEnabled()) {
+            TextWrapper response = TextWrapper.translation("commands.hourglass.query.network.disabled");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        Map<NetworkTelemetry.Channel, long[]> channels = new EnumMap<>(NetworkTelemetry.Channel.class);
+        for (NetworkTelemetry.Traffic traffic : NetworkTelemetry.getTraffic()) {
+            TextWrapper line = TextWrapper.translation(
+                    "commands.hourglass.query.network.category",
+                    traffic.getCategory().getLabel(),
+                    traffic.getCategory().getChannel().name().toLowerCase(Locale.ROOT),
+                    String.format("%.1f", traffic.getPacketRate()),
+                    String.format("%.1f", traffic.getByteRate()),
+                    traffic.getPackets(),
+                    traffic.getBytes());
+            context.getSource().sendSuccess(line, false);
+
+            long[] totals = channels.computeIfAbsent(traffic.getCategory().getChannel(), c -> new long[2]);
+            totals[0] += traffic.getPackets();
+            totals[1] += traffic.getBytes();
+        }
+
+        channels.forEach((channel, totals) -> {
+            TextWrapper line = TextWrapper.translation(
+                    "commands.hourglass.query.network.channel",
+                    channel.name().toLowerCase(Locale.ROOT),
+                    totals[0],
+                    totals[1]);
+            context.getSource().sendSuccess(line, false);
+        });
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a network players query command. Reports the packets and bytes sent to every
+     * online player.
+     *
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onNetworkPlayersQuery(CommandContext<CommandSourceStack> context) {
+        if (!NetworkTelemetry.isEnabled()) {
+            TextWrapper response = TextWrapper.translation("commands.hourglass.query.network.disabled");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        NetworkTelemetry.getPlayerTraffic().forEach((name, traffic) -> {
+            TextWrapper line = TextWrapper.translation(
+                    "commands.hourglass.query.network.player",
+                    name,
+                    traffic.getPackets(),
+                    traffic.getBytes());
+            context.getSource().sendSuccess(line, false);
+        });
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a profile start command. Discards previous samples and starts profiling.
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onProfileStart(CommandContext<CommandSourceStack> context) {
+        TimeService service = TimeServiceManager.service;
+        if (service == null) {
+            TextWrapper response = TextWrapper.translation(
+                    "commands.hourglass.query.levelNotApplicable");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        service.profiler.start();
+        context.getSource().sendSuccess(TextWrapper.translation("commands.hourglass.profile.start"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a profile stop command.
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onProfileStop(CommandContext<CommandSourceStack> context) {
+        TimeService service = TimeServiceManager.service;
+        if (service == null) {
+            TextWrapper response = TextWrapper.translation(
+                    "commands.hourglass.query.levelNotApplicable");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        service.profiler.stop();
+        context.getSource().sendSuccess(TextWrapper.translation("commands.hourglass.profile.stop"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a profile report command. Prints the p50, p99 and max duration of every phase.
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onProfileReport(CommandContext<CommandSourceStack> context) {
+        TimeService service = TimeServiceManager.service;
+        if (service == null) {
+            TextWrapper response = TextWrapper.translation(
+                    "commands.hourglass.query.levelNotApplicable");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        SortedMap<String, RollingHistogram.Summary> report = service.profiler.report();
+        if (report.isEmpty()) {
+            context.getSource().sendFailure(TextWrapper.translation("commands.hourglass.profile.empty").get());
+            return 0;
+        }
+
+        report.forEach((phase, summary) -> {
+            TextWrapper line = TextWrapper.translation(
+                    "commands.hourglass.profile.report",
+                    phase,
+                    formatMicros(summary.p50()),
+                    formatMicros(summary.p99()),
+                    formatMicros(summary.max()),
+                    summary.count());
+            context.getSource().sendSuccess(line, false);
+        });
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Handles a time skip command.
+     * @param context  the command context
+     * @return 1 for success, 0 for failure
+     */
+    public static int onSkip(CommandContext<CommandSourceStack> context) {
+        ServerLevelWrapper wrapper = new ServerLevelWrapper(context.getSource().getLevel());
+        TimeService service = TimeServiceManager.service;
+
+        if (service == null || !service.managesLevel(wrapper)) {
+            TextWrapper response = TextWrapper.translation(
+                    "commands.hourglass.query.levelNotApplicable");
+            context.getSource().sendFailure(response.get());
+            return 0;
+        }
+
+        int duration = IntegerArgumentType.getInteger(context, "duration");
+        Time time = service.skipTime(new Time(duration));
+
+        TextWrapper response = TextWrapper.translation(
+                "commands.hourglass.skip.success",
+                duration,
+                time.timeOfDay().longValue());
+        context.getSource().sendSuccess(response, true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /** {@return {@code nanos} formatted as microseconds with one decimal place} */
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1000D);
+    }
+
 }
@@ -20,22 +20,32 @@
 package net.lavabucket.hourglass.command.config;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import net.lavabucket.hourglass.config.ConfigPersistence;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraftforge.common.ForgeConfigSpec.BooleanValue;
 import net.minecraftforge.common.ForgeConfigSpec.ConfigValue;
 import net.minecraftforge.common.ForgeConfigSpec.DoubleValue;
@@ -61,6 +71,12 @@ public class ConfigCommand {
     protected BiConsumer<CommandContext<CommandSourceStack>, ConfigCommandEntry<?>> modifySuccessHandler;
     /** The function that is called after a failed modification command execution. */
     protected BiConsumer<CommandContext<CommandSourceStack>, ConfigCommandEntry<?>> modifyFailureHandler;
+    /** The function that is called after a successful 'set' or 'preset' command execution. */
+    protected BiConsumer<CommandContext<CommandSourceStack>, List<ConfigCommandEntry<?>>> batchModifySuccessHandler;
+    /** The function that is called with the offending text after a failed 'set' or 'preset' command. */
+    protected BiConsumer<CommandContext<CommandSourceStack>, String> batchModifyFailureHandler;
+    /** Supplies the presets of the 'preset' command, by name. */
+    protected Supplier<Map<String, String>> presetSupplier;
 
     /** Creates a new instance. */
     public ConfigCommand() {
@@ -222,6 +238,46 @@ public class ConfigCommand {
         return this;
     }
 
+    /**
+     * Sets the consumer that is called after a 'set' or 'preset' command successfully modified
+     * several config values. This consumer should inform the user of the new config values.
+     *
+     * @param listener  this handler to set
+     * @return this, for chaining
+     */
+    public ConfigCommand setBatchModifySuccessHandler(
+            BiConsumer<CommandContext<CommandSourceStack>, List<ConfigCommandEntry<?>>> listener) {
+        this.batchModifySuccessHandler = listener;
+        return this;
+    }
+
+    /**
+     * Sets the consumer that is called after a 'set' or 'preset' command failed. The consumer is
+     * given the assignment or preset name that could not be applied, and should inform the user
+     * of the failure.
+     *
+     * @param listener  this handler to set
+     * @return this, for chaining
+     */
+    public ConfigCommand setBatchModifyFailureHandler(
+            BiConsumer<CommandContext<CommandSourceStack>, String> listener) {
+        this.batchModifyFailureHandler = listener;
+        return this;
+    }
+
+    /**
+     * Sets the supplier of named presets for the 'preset' command. Each preset is a list of
+     * assignments in the format of the 'set' command. The 'preset' command is only built if a
+     * supplier is set.
+     *
+     * @param supplier  the preset supplier to set
+     * @return this, for chaining
+     */
+    public ConfigCommand setPresetSupplier(Supplier<Map<String, String>> supplier) {
+        this.presetSupplier = supplier;
+        return this;
+    }
+
     /**
      * Builds the Config Command off of the specified parent builder node. Command handlers should
      * be defined before this is called.
@@ -238,9 +294,43 @@ public class ConfigCommand {
                     .executes(context -> this.queryConfigCommand(context, entry)));
         }
 
+        parent.then(Commands.literal("set")
+                .then(Commands.argument("assignments", StringArgumentType.greedyString())
+                    .suggests(this::suggestAssignments)
+                    .executes(context -> this.modifyConfigsCommand(context,
+                            StringArgumentType.getString(context, "assignments")))));
+
+        if (presetSupplier != null) {
+            parent.then(Commands.literal("preset")
+                    .then(Commands.argument("preset", StringArgumentType.word())
+                        .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                                presetSupplier.get().keySet(), builder))
+                        .executes(this::presetCommand)));
+        }
+
         return parent;
     }
 
+    /**
+     * Suggests entry identifiers for the assignment being typed in a 'set' command.
+     *
+     * @param context  the command context
+     * @param builder  the suggestions builder, starting at the beginning of the assignments
+     * @return the suggestions
+     */
+    protected CompletableFuture<Suggestions> suggestAssignments(
+            CommandContext<CommandSourceStack> context, SuggestionsBuilder builder) {
+        String remaining = builder.getRemaining();
+        int start = remaining.lastIndexOf(' ') + 1;
+        if (remaining.indexOf('=', start) >= 0) {
+            return builder.buildFuture();
+        }
+
+        SuggestionsBuilder last = builder.createOffset(builder.getStart() + start);
+        return SharedSuggestionProvider.suggest(
+                entries.keySet().stream().map(identifier -> identifier + "="), last);
+    }
+
     /**
      * Command handler that is executed during a config 'query' command.
      *
@@ -265,7 +355,8 @@ public class ConfigCommand {
      * Command handler that is executed during a config 'modify' command.
      *
      * Retrieves the new config value as an argument from the command context, sets the
-     * {@link ConfigValue} stored in {@code entry}, and finally calls {@link #modifySuccessHandler}
+     * {@link ConfigValue} stored in {@code entry} through {@link ConfigPersistence}, which writes
+     * the config file in the background, and finally calls {@link #modifySuccessHandler}
      * or {@link #modifyFailureHandler}.
      *
      * @param <T>  the underlying data class of the command entry
@@ -289,7 +380,7 @@ public class ConfigCommand {
         }
 
         try {
-            entry.getConfigValue().set(argument);
+            ConfigPersistence.set(entry.getConfigValue(), argument);
         } catch(Exception e) {
             if (this.modifyFailureHandler != null) {
                 LOGGER.error("Command failed to set config to value: " + argument, e);
@@ -305,4 +396,78 @@ public class ConfigCommand {
         return Command.SINGLE_SUCCESS;
     }
 
+    /**
+     * Command handler that is executed during a config 'preset' command. Applies the assignments
+     * of the named preset like a 'set' command.
+     *
+     * @param context  the command context from the executing command
+     * @return 1 if successful, 0 otherwise
+     */
+    protected int presetCommand(CommandContext<CommandSourceStack> context) {
+        String name = StringArgumentType.getString(context, "preset");
+        String assignments = presetSupplier.get().get(name);
+        if (assignments == null) {
+            if (this.batchModifyFailureHandler != null) {
+                this.batchModifyFailureHandler.accept(context, name);
+            }
+            return 0;
+        }
+        return modifyConfigsCommand(context, assignments);
+    }
+
+    /**
+     * Command handler that is executed during a config 'set' command.
+     *
+     * Parses every assignment in {@code assignments}, a whitespace separated list of
+     * {@code identifier=value} pairs, before setting any value. If all of them are valid, the
+     * values are set together through {@link ConfigPersistence#setAll(Map)}, so the config file is
+     * written once, and {@link #batchModifySuccessHandler} is called once. Otherwise no value is set
+     * and {@link #batchModifyFailureHandler} is called with the first invalid assignment.
+     *
+     * @param context  the command context from the executing command
+     * @param assignments  the assignments to apply
+     * @return 1 if successful, 0 otherwise
+     */
+    protected int modifyConfigsCommand(CommandContext<CommandSourceStack> context,
+            String assignments) {
+        Map<ConfigCommandEntry<?>, Object> values = new LinkedHashMap<>();
+        for (String assignment : assignments.trim().split("\\s+")) {
+            int separator = assignment.indexOf('=');
+            ConfigCommandEntry<?> entry = separator > 0
+                    ? entries.get(assignment.substring(0, separator))
+                    : null;
+            try {
+                if (entry == null) {
+                    throw new IllegalArgumentException("Unknown config: " + assignment);
+                }
+                values.put(entry, entry.parse(assignment.substring(separator + 1)));
+            } catch (CommandSyntaxException | IllegalArgumentException e) {
+                return batchModifyFailed(context, assignment, e);
+            }
+        }
+
+        Map<ConfigValue<?>, Object> configValues = new LinkedHashMap<>();
+        values.forEach((entry, value) -> configValues.put(entry.getConfigValue(), value));
+        try {
+            ConfigPersistence.setAll(configValues);
+        } catch (Exception e) {
+            return batchModifyFailed(context, assignments, e);
+        }
+
+        if (this.batchModifySuccessHandler != null) {
+            this.batchModifySuccessHandler.accept(context, List.copyOf(values.keySet()));
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private int batchModifyFailed(CommandContext<CommandSourceStack> context, String text,
+            Exception e) {
+        if (this.batchModifyFailureHandler == null) {
+            throw new IllegalArgumentException(e);
+        }
+        LOGGER.error("Command failed to set config values: " + text, e);
+        this.batchModifyFailureHandler.accept(context, text);
+        return 0;
+    }
+
 }
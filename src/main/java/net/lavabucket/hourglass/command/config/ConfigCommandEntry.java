@@ -19,9 +19,11 @@
 
 package net.lavabucket.hourglass.command.config;
 
+import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -129,6 +131,24 @@ public class ConfigCommandEntry<T> {
         return context.getArgument(this.getArgumentName(), this.getValueClass());
     }
 
+    /**
+     * Parses a value for this entry from a string with this entry's argument type. The whole
+     * string must be consumed.
+     *
+     * @param value  the string to parse
+     * @return the parsed value
+     * @throws CommandSyntaxException if {@code value} is not a valid value for this entry
+     */
+    public T parse(String value) throws CommandSyntaxException {
+        StringReader reader = new StringReader(value);
+        T result = getArgumentType().parse(reader);
+        if (reader.canRead()) {
+            throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument()
+                    .createWithContext(reader);
+        }
+        return result;
+    }
+
     /**
      * Returns this entry's identifier used to refer to this entry in commands.
      *
@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.config;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.file.CommentedFileConfig;
+import com.electronwill.nightconfig.core.utils.ConfigWrapper;
+import com.electronwill.nightconfig.toml.TomlFormat;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.common.ForgeConfigSpec.ConfigValue;
+import net.minecraftforge.common.ForgeConfigSpec.ValueSpec;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
+
+/**
+ * Changes Hourglass config values in memory immediately and writes the config files later, on a
+ * dedicated I/O thread.
+ *
+ * <p>Forge config files save themselves every time a value is set, on the thread that set it. When
+ * a value is set through {@link #set(ConfigValue, Object)}, the value is changed in memory and the
+ * config is serialized on the calling thread, but the file is written on the I/O thread. Writes to
+ * the same file are coalesced, so only the latest contents are written, and each write goes to a
+ * temporary file that is then moved over the config file. Pending writes are flushed in order when
+ * the server stops.
+ *
+ * <p>Forge does not expose the file config under its autosave wrapper, so it is reached by
+ * reflection. If that fails, for example after a Night Config or Forge update, a warning is logged
+ * once and values are set through {@link ConfigValue#set(Object)} instead, which saves the file on
+ * the calling thread every time.
+ */
+public final class ConfigPersistence {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // How long to wait for pending writes when the server stops
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    // The name prefix of the Night Config classes that save on every change
+    private static final String AUTOSAVE_PREFIX = "Autosave";
+
+    private static final List<ModConfig> CONFIGS = new CopyOnWriteArrayList<>();
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("Hourglass Config I/O")
+                    .setDaemon(true)
+                    .build());
+
+    // The latest contents to write to each config file; guarded by itself
+    private static final Map<Path, String> PENDING_WRITES = new LinkedHashMap<>();
+
+    private static Field wrappedConfigField;
+    private static boolean unwrapFailed;
+
+    private ConfigPersistence() {}
+
+    /**
+     * Keeps track of loaded Hourglass configs. Registered on the mod event bus.
+     * @param event  the event provided by the mod event bus
+     */
+    @SubscribeEvent
+    public static void onConfigLoading(ModConfigEvent.Loading event) {
+        CONFIGS.add(event.getConfig());
+    }
+
+    /**
+     * Forgets unloaded Hourglass configs. Registered on the mod event bus.
+     * @param event  the event provided by the mod event bus
+     */
+    @SubscribeEvent
+    public static void onConfigUnloading(ModConfigEvent.Unloading event) {
+        CONFIGS.remove(event.getConfig());
+    }
+
+    /**
+     * Flushes pending writes when the server stops. Registered on the Forge event bus.
+     * @param event  the event provided by the Forge event bus
+     */
+    public static void onServerStopped(ServerStoppedEvent event) {
+        flush();
+    }
+
+    /**
+     * Sets a config value in memory and schedules its config file to be written. Falls back to
+     * {@link ConfigValue#set(Object)}, which saves the file immediately, if the config of the value
+     * is not loaded from a file.
+     *
+     * @param <T>  the type of the value
+     * @param value  the config value to set
+     * @param newValue  the new value
+     */
+    public static <T> void set(ConfigValue<T> value, T newValue) {
+        setAll(Map.of(value, newValue));
+    }
+
+    /**
+     * Sets several config values as one change. Every value is validated against its config spec
+     * before any is set, and each affected config file is serialized and written once.
+     *
+     * @param values  the new value of each config value
+     * @throws IllegalArgumentException if a value is not valid for its config value
+     */
+    public static void setAll(Map<? extends ConfigValue<?>, ?> values) {
+        Map<ModConfig, CommentedConfig> files = new LinkedHashMap<>();
+        values.forEach((value, newValue) -> {
+            ModConfig modConfig = findConfig(value);
+            if (modConfig != null && modConfig.getSpec() instanceof ForgeConfigSpec spec
+                    && spec.getSpec().get(value.getPath()) instanceof ValueSpec valueSpec
+                    && !valueSpec.test(newValue)) {
+                throw new IllegalArgumentException("Invalid value for "
+                        + String.join(".", value.getPath()) + ": " + newValue);
+            }
+            if (modConfig != null) {
+                files.put(modConfig, unwrap(modConfig.getConfigData()));
+            }
+        });
+
+        values.forEach((value, newValue) -> {
+            ModConfig modConfig = findConfig(value);
+            CommentedConfig data = modConfig != null ? files.get(modConfig) : null;
+            if (data == null) {
+                setUnchecked(value, newValue);
+            } else {
+                data.set(value.getPath(), newValue);
+                value.clearCache();
+            }
+        });
+
+        files.forEach((modConfig, data) -> {
+            if (data != null) {
+                scheduleWrite(modConfig.getFullPath(),
+                        TomlFormat.instance().createWriter().writeToString(data));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void setUnchecked(ConfigValue<T> value, Object newValue) {
+        value.set((T) newValue);
+    }
+
+    /** Blocks until all pending config writes have completed. */
+    public static void flush() {
+        Future<?> future = EXECUTOR.submit(ConfigPersistence::writePending);
+        try {
+            future.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.error(MARKER, "Failed to flush config files.", e);
+        }
+    }
+
+    private static void scheduleWrite(Path path, String contents) {
+        boolean idle;
+        synchronized (PENDING_WRITES) {
+            idle = PENDING_WRITES.isEmpty();
+            PENDING_WRITES.put(path, contents);
+        }
+        if (idle) {
+            EXECUTOR.execute(ConfigPersistence::writePending);
+        }
+    }
+
+    private static void writePending() {
+        Map<Path, String> writes;
+        synchronized (PENDING_WRITES) {
+            writes = new LinkedHashMap<>(PENDING_WRITES);
+            PENDING_WRITES.clear();
+        }
+        writes.forEach(ConfigPersistence::write);
+    }
+
+    private static void write(Path path, String contents) {
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(temp, contents, StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.error(MARKER, "Failed to write config file {}.", path, e);
+        }
+    }
+
+    /** {@return the loaded config that {@code value} belongs to, or null if there is none} */
+    private static ModConfig findConfig(ConfigValue<?> value) {
+        for (ModConfig modConfig : CONFIGS) {
+            if (modConfig.getSpec() instanceof ForgeConfigSpec spec
+                    && modConfig.getConfigData() != null
+                    && spec.getValues().get(value.getPath()) == value) {
+                return modConfig;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the autosave wrapper that Forge puts around config files, so that values can be set
+     * without saving the file.
+     *
+     * @param config  the config data of a mod config
+     * @return the unwrapped file config, or null if {@code config} could not be unwrapped
+     */
+    private static CommentedConfig unwrap(CommentedConfig config) {
+        Config current = config;
+        try {
+            // Only unwrap autosave configs; the config they wrap is itself a wrapper around the data
+            while (current instanceof ConfigWrapper<?>
+                    && current.getClass().getSimpleName().startsWith(AUTOSAVE_PREFIX)) {
+                if (wrappedConfigField == null) {
+                    wrappedConfigField = ConfigWrapper.class.getDeclaredField("config");
+                    wrappedConfigField.setAccessible(true);
+                }
+                current = (Config) wrappedConfigField.get(current);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            warnUnwrapFailed(config, e);
+            return null;
+        }
+
+        if (current instanceof CommentedFileConfig fileConfig) {
+            return fileConfig;
+        }
+        warnUnwrapFailed(config, null);
+        return null;
+    }
+
+    /**
+     * Logs a warning the first time a config cannot be unwrapped, since every config change is
+     * then saved on the calling thread.
+     *
+     * @param config  the config that could not be unwrapped
+     * @param cause  the exception that caused the failure, or null if there is none
+     */
+    private static void warnUnwrapFailed(CommentedConfig config, Throwable cause) {
+        if (unwrapFailed) {
+            LOGGER.debug(MARKER, "Failed to unwrap config {}.", config, cause);
+            return;
+        }
+        unwrapFailed = true;
+        LOGGER.warn(MARKER, "Failed to unwrap config {}; config changes will be saved on the server "
+                + "thread instead of the config I/O thread.", config, cause);
+    }
+
+}
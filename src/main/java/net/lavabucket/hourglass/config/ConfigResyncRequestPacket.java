@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.config;
+
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+
+/**
+ * Sent by a client whose config version is stale to request a full config sync.
+ *
+ * @param version  the config version of the client
+ */
+public record ConfigResyncRequestPacket(int version) {
+
+    /**
+     * Writes this packet to a buffer.
+     * @param buffer  the buffer to write to
+     */
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarInt(version + 1);
+    }
+
+    /**
+     * {@return a packet read from a buffer}
+     * @param buffer  the buffer to read from
+     */
+    public static ConfigResyncRequestPacket decode(FriendlyByteBuf buffer) {
+        return new ConfigResyncRequestPacket(buffer.readVarInt() - 1);
+    }
+
+    /**
+     * Answers this request on the server.
+     *
+     * @param packet  the packet
+     * @param context  the context of the packet
+     */
+    public static void handle(ConfigResyncRequestPacket packet,
+            CustomPayloadEvent.Context context) {
+        if (context.getSender() != null) {
+            ConfigSynchronizer.onResyncRequest(new ServerPlayerWrapper(context.getSender()),
+                    packet.version());
+        }
+        context.setPacketHandled(true);
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.config;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+
+/**
+ * Sends the server config values used by clients.
+ *
+ * <p>Each value in {@link ConfigSynchronizer#SYNCED_VALUES} is one bit of {@code changed} and
+ * {@code values}. A full sync sets every bit of {@code changed}; a diff only sets the bits of the
+ * values that changed since {@code baseVersion}. A client that is not at {@code baseVersion} asks
+ * for a full sync instead of applying a diff.
+ *
+ * @param baseVersion  the config version the diff applies to, or {@link #FULL} for a full sync
+ * @param version  the config version after applying this packet
+ * @param changed  a bit mask of the values contained in this packet
+ * @param values  a bit mask of the contained values
+ */
+public record ConfigSyncPacket(int baseVersion, int version, int changed, int values) {
+
+    /** The base version of a full sync, which applies to any client. */
+    public static final int FULL = -1;
+
+    /** {@return true if this packet contains every synced value} */
+    public boolean isFull() {
+        return baseVersion == FULL;
+    }
+
+    /**
+     * Writes this packet to a buffer.
+     * @param buffer  the buffer to write to
+     */
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarInt(baseVersion + 1);
+        buffer.writeVarInt(version);
+        buffer.writeVarInt(changed);
+        buffer.writeVarInt(values);
+    }
+
+    /**
+     * {@return a packet read from a buffer}
+     * @param buffer  the buffer to read from
+     */
+    public static ConfigSyncPacket decode(FriendlyByteBuf buffer) {
+        return new ConfigSyncPacket(buffer.readVarInt() - 1, buffer.readVarInt(),
+                buffer.readVarInt(), buffer.readVarInt());
+    }
+
+    /**
+     * Applies this packet on the client.
+     *
+     * @param packet  the packet
+     * @param context  the context of the packet
+     */
+    public static void handle(ConfigSyncPacket packet, CustomPayloadEvent.Context context) {
+        ConfigSynchronizer.onSyncPacket(packet, context.getConnection().isMemoryConnection());
+        context.setPacketHandled(true);
+    }
+
+}
@@ -19,35 +19,67 @@
 
 package net.lavabucket.hourglass.config;
 
-import java.lang.reflect.Field;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Map;
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
-import net.lavabucket.hourglass.Hourglass;
+import org.apache.logging.log4j.Logger;
+
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry.Category;
+import net.lavabucket.hourglass.network.HourglassNetwork;
+import net.lavabucket.hourglass.profiling.jfr.ConfigSyncEvent;
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
 import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.common.ForgeConfigSpec.BooleanValue;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
-import net.minecraftforge.fml.config.ConfigTracker;
 import net.minecraftforge.fml.config.ModConfig;
-import net.minecraftforge.fml.config.ModConfig.Type;
 import net.minecraftforge.fml.event.config.ModConfigEvent.Reloading;
-import net.minecraftforge.network.NetworkInitialization;
 import net.minecraftforge.network.PacketDistributor;
-import net.minecraftforge.network.packets.ConfigData;
 import net.minecraftforge.server.ServerLifecycleHooks;
 
 /**
- * A very quick and very dirty method of synchronizing server configuration with clients.
+ * Synchronizes the server config values used by clients.
  *
  * Forge syncs server configs with clients by default on login, but leaves clients out-of-date if
- * the configuration changes after login. This class handles server configuration changes and
- * pushes them to the clients using the same methods Forge uses during the initial login sync.
+ * the configuration changes after login. This class sends a full {@link ConfigSyncPacket} to each
+ * player on login, and afterwards only the values that changed. Changes are debounced over
+ * {@link #DEBOUNCE_TICKS}, so a config command and the file reload it causes are sent once.
+ *
+ * <p>Every diff increments the config version. A client that receives a diff for a version other
+ * than its own asks for a full sync with a {@link ConfigResyncRequestPacket}.
  */
 public class ConfigSynchronizer {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** The server config values used by clients, in the bit order of {@link ConfigSyncPacket}. */
+    static final List<BooleanValue> SYNCED_VALUES = List.of(
+            SERVER_CONFIG.enableSleepFeature,
+            SERVER_CONFIG.displayBedClock);
+
+    /** The number of ticks over which config changes are collected before they are synced. */
+    public static final int DEBOUNCE_TICKS = 10;
+
+    private static final int ALL_VALUES = (1 << SYNCED_VALUES.size()) - 1;
+    private static final int UNSYNCED = -1;
+
+    // Server state
+    private static int version = 0;
+    private static int syncedValues = UNSYNCED;
+    private static int debounceTicks = 0;
+
+    // Client state
+    private static int clientVersion = ConfigSyncPacket.FULL;
+
     /**
-     * Listens for a config reload event and initializes a configuration sync if the server config
+     * Listens for a config reload event and schedules a configuration sync if the server config
      * was changed.
      *
      * @param event  the config reload event, provided by the event bus
@@ -60,33 +92,168 @@ public class ConfigSynchronizer {
                 && server.isRunning()
                 && config.getSpec() == HourglassConfig.SERVER_CONFIG.spec) {
 
+            requestSync();
+        }
+    }
+
+    /**
+     * Sends a full sync to players when they log in. Registered on the Forge event bus.
+     * @param event  the event provided by the Forge event bus
+     */
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        sendFullSync(new ServerPlayerWrapper(event.getEntity()));
+    }
+
+    /**
+     * Syncs pending changes once the debounce window has passed. Registered on the Forge event
+     * bus.
+     *
+     * @param event  the event provided by the Forge event bus
+     */
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && debounceTicks > 0 && --debounceTicks == 0) {
             syncConfigWithClients();
         }
     }
 
     /**
-     * Synchronizes the mod server config file with all clients currently connected. Produces a log
-     * on failure.
+     * Discards the sync state of the stopping server. Registered on the Forge event bus.
+     * @param event  the event provided by the Forge event bus
+     */
+    public static void onServerStopping(ServerStoppingEvent event) {
+        syncedValues = UNSYNCED;
+        debounceTicks = 0;
+    }
+
+    /**
+     * Schedules a sync of changed config values with all clients after {@link #DEBOUNCE_TICKS}.
+     * Further requests within the window are merged into the same sync.
+     */
+    public static void requestSync() {
+        if (debounceTicks == 0) {
+            debounceTicks = DEBOUNCE_TICKS;
+        }
+    }
+
+    /**
+     * Immediately sends the config values that changed since the last sync to all clients
+     * currently connected that have the Hourglass channel.
      */
-    @SuppressWarnings("unchecked")
     public static void syncConfigWithClients() {
-        LogManager.getLogger().info("Synchronizing server config with clients.");
-
-        try {
-            Field configsByModField = ConfigTracker.class.getDeclaredField("configsByMod");
-            configsByModField.setAccessible(true);
-            ConfigTracker configTracker = ConfigTracker.INSTANCE;
-            var configsByMod = (Map<String, Map<Type, ModConfig>>) configsByModField.get(configTracker);
-
-            ModConfig modConfig = configsByMod.get(Hourglass.MOD_ID).get(ModConfig.Type.SERVER);
-            Path configFilePath = modConfig.getFullPath();
-            String configFileName = modConfig.getFileName();
-            byte[] configRawData = Files.readAllBytes(configFilePath);
-            ConfigData configData = new ConfigData(configFileName, configRawData);
-            NetworkInitialization.PLAY.send(configData, PacketDistributor.ALL.noArg());
-
-        } catch (Exception e) {
-            LogManager.getLogger().error("Failed to sync server config with clients.", e);
+        debounceTicks = 0;
+        int values = getValues();
+        if (syncedValues == UNSYNCED) {
+            // Nobody has logged in since the server started, so there is nothing to update.
+            syncedValues = values;
+            version++;
+            return;
+        }
+
+        int changed = values ^ syncedValues;
+        if (changed == 0) {
+            return;
+        }
+
+        LOGGER.info(MARKER, "Synchronizing server config with clients.");
+        syncedValues = values;
+        version++;
+        ConfigSyncPacket packet = new ConfigSyncPacket(version - 1, version, changed, values);
+        send(packet, ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayers().stream()
+                .map(ServerPlayerWrapper::new)
+                .filter(HourglassNetwork::hasChannel)
+                .toList());
+    }
+
+    /**
+     * Sends every synced config value to a player.
+     * @param player  the player to send the config to
+     */
+    public static void sendFullSync(ServerPlayerWrapper player) {
+        if (!HourglassNetwork.hasChannel(player)) {
+            return;
+        }
+
+        int values = getValues();
+        if (syncedValues == UNSYNCED) {
+            syncedValues = values;
+        }
+
+        ConfigSyncPacket packet = new ConfigSyncPacket(ConfigSyncPacket.FULL, version, ALL_VALUES,
+                values);
+        send(packet, List.of(player));
+    }
+
+    /**
+     * Answers a client's request for a full sync if its version is stale.
+     *
+     * @param player  the player who sent the request
+     * @param playerVersion  the config version of the player
+     */
+    static void onResyncRequest(ServerPlayerWrapper player, int playerVersion) {
+        if (playerVersion != version) {
+            sendFullSync(player);
+        }
+    }
+
+    /**
+     * Applies a config sync packet on the client.
+     *
+     * @param packet  the packet received from the server
+     * @param integrated  true if the client is connected to its own integrated server, whose
+     *     config is shared with the client
+     */
+    static void onSyncPacket(ConfigSyncPacket packet, boolean integrated) {
+        if (!packet.isFull() && packet.baseVersion() != clientVersion) {
+            HourglassNetwork.CHANNEL.send(new ConfigResyncRequestPacket(clientVersion),
+                    PacketDistributor.SERVER.noArg());
+            return;
+        }
+
+        clientVersion = packet.version();
+        if (integrated || !SERVER_CONFIG.spec.isLoaded()) {
+            return;
+        }
+
+        for (int i = 0; i < SYNCED_VALUES.size(); i++) {
+            if ((packet.changed() & 1 << i) != 0) {
+                SYNCED_VALUES.get(i).set((packet.values() & 1 << i) != 0);
+            }
+        }
+    }
+
+    /** {@return the current synced config values as a bit mask} */
+    private static int getValues() {
+        int values = 0;
+        for (int i = 0; i < SYNCED_VALUES.size(); i++) {
+            if (SYNCED_VALUES.get(i).get()) {
+                values |= 1 << i;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sends {@code packet} to {@code players}, and records its size.
+     *
+     * @param packet  the packet to send
+     * @param players  the players to send the packet to, which must have the Hourglass channel
+     */
+    private static void send(ConfigSyncPacket packet, Collection<ServerPlayerWrapper> players) {
+        if (players.isEmpty()) {
+            return;
+        }
+
+        ConfigSyncEvent event = new ConfigSyncEvent();
+        event.begin();
+        players.forEach(player ->
+                HourglassNetwork.CHANNEL.send(packet, PacketDistributor.PLAYER.with(player.get())));
+        event.end();
+
+        if (event.shouldCommit() || NetworkTelemetry.isEnabled()) {
+            int bytes = HourglassNetwork.measure(packet, ConfigSyncPacket::encode);
+            event.bytes = bytes;
+            event.commit();
+            players.forEach(player -> NetworkTelemetry.record(Category.CONFIG, player, bytes));
         }
     }
 
@@ -19,6 +19,8 @@
 
 package net.lavabucket.hourglass.config;
 
+import java.util.List;
+
 import net.lavabucket.hourglass.client.gui.ScreenAlignment;
 import net.lavabucket.hourglass.message.TemplateMessage.MessageTarget;
 import net.lavabucket.hourglass.time.Time;
@@ -61,6 +63,8 @@ public class HourglassConfig {
 
         public final DoubleValue daySpeed;
         public final DoubleValue nightSpeed;
+        public final BooleanValue wallClockTime;
+        public final DoubleValue maxCatchUpTicks;
 
         public final EnumValue<EffectCondition> weatherEffect;
         public final EnumValue<EffectCondition> randomTickEffect;
@@ -68,16 +72,41 @@ public class HourglassConfig {
         public final EnumValue<EffectCondition> potionEffect;
         public final EnumValue<EffectCondition> hungerEffect;
         public final EnumValue<EffectCondition> blockEntityEffect;
+        public final EnumValue<EffectCondition> entityEffect;
+        public final IntValue entityEffectRadius;
+        public final IntValue entityEffectBudget;
+        public final EnumValue<EffectCondition> scheduledTickEffect;
+        public final IntValue scheduledTickEffectRadius;
+        public final IntValue scheduledTickEffectBudget;
 
         public final BooleanValue enableSleepFeature;
         public final DoubleValue sleepSpeedMin;
         public final DoubleValue sleepSpeedMax;
         public final DoubleValue sleepSpeedAll;
         public final DoubleValue sleepSpeedCurve;
+        public final BooleanValue instantSleep;
         public final BooleanValue clearWeatherOnWake;
         public final BooleanValue displayBedClock;
         public final BooleanValue allowDaySleep;
 
+        public final BooleanValue enableGovernor;
+        public final DoubleValue governorTargetTickTime;
+        public final DoubleValue governorSleepSpeedCap;
+        public final BooleanValue enableMetrics;
+        public final ConfigValue<String> metricsFile;
+        public final IntValue metricsInterval;
+        public final IntValue metricsPort;
+        public final BooleanValue enableNetworkTelemetry;
+        public final BooleanValue enableTimeTrace;
+        public final BooleanValue asyncMessageDelivery;
+        public final DoubleValue timeSpeedEventThreshold;
+        public final BooleanValue idleFastPath;
+
+        public final ConfigValue<List<? extends String>> configPresets;
+        public final IntValue timeTraceTicks;
+
+        public final IntValue messageCoalesceTicks;
+
         public final ConfigValue<String> morningMessage;
         public final EnumValue<ChatTypeOptions> morningMessageType;
         public final EnumValue<MessageTarget> morningMessageTarget;
@@ -85,10 +114,12 @@ public class HourglassConfig {
         public final ConfigValue<String> enterBedMessage;
         public final EnumValue<ChatTypeOptions> enterBedMessageType;
         public final EnumValue<MessageTarget> enterBedMessageTarget;
+        public final ConfigValue<String> enterBedSummaryMessage;
 
         public final ConfigValue<String> leaveBedMessage;
         public final EnumValue<ChatTypeOptions> leaveBedMessageType;
         public final EnumValue<MessageTarget> leaveBedMessageTarget;
+        public final ConfigValue<String> leaveBedSummaryMessage;
 
         /**
          * Constructs an instance of an Hourglass server config.
@@ -110,6 +141,17 @@ public class HourglassConfig {
                     "Vanilla speed: 1.0")
                     .defineInRange("nightSpeed", 1D, 0D, Time.DAY_LENGTH.doubleValue());
 
+                wallClockTime = builder.comment(
+                    "When true, the amount of time that passes each tick is based on the real time elapsed since the previous tick",
+                    "instead of assuming every tick lasts 50ms. This keeps the real-world length of a day constant while the server lags.",
+                    "Time effects are scaled to match.")
+                    .define("wallClockTime", false);
+
+                maxCatchUpTicks = builder.comment(
+                    "The maximum number of ticks worth of time that may pass in a single tick when wallClockTime is enabled.",
+                    "Limits how far time jumps after a lag spike or after the game has been paused.")
+                    .defineInRange("maxCatchUpTicks", 10D, 1D, 1200D);
+
                 builder.push("effects"); // time.effects
 
                     weatherEffect = builder.comment(
@@ -155,6 +197,43 @@ public class HourglassConfig {
                         "When set to SLEEPING, this effect only applies when at least one player is sleeping in a dimension.")
                         .defineEnum("blockEntityEffect", EffectCondition.NEVER);
 
+                    entityEffect = builder.comment(
+                        "When applied, this effect progresses the mob effects of non-player entities, the growth of baby animals,",
+                        "and breeding cooldowns to match the rate of the current time-speed.",
+                        "This effect does not apply if time speed is 1.0 or less.",
+                        "When set to ALWAYS, this effect applies around all players in the dimension, day or night.",
+                        "When set to SLEEPING, this effect only applies around players who are sleeping.")
+                        .defineEnum("entityEffect", EffectCondition.NEVER);
+
+                    entityEffectRadius = builder.comment(
+                        "When greater than 0, entityEffect only applies to entities within this many blocks of the players it applies",
+                        "around. When set to 0, entityEffect applies to entities within the simulation distance of those players.")
+                        .defineInRange("entityEffectRadius", 0, 0, 512);
+
+                    entityEffectBudget = builder.comment(
+                        "The maximum number of entities progressed by entityEffect each tick. Entities that are not reached in one",
+                        "tick are progressed in the following ticks, so lower values spread the work of levels with many entities",
+                        "over more ticks. Each chunk visited counts as at least one entity, and the last chunk visited in a tick",
+                        "may exceed the budget by the number of entities in it.")
+                        .defineInRange("entityEffectBudget", 1000, 1, 1000000);
+
+                    scheduledTickEffect = builder.comment(
+                        "When applied, this effect progresses scheduled block and fluid ticks like redstone components, falling",
+                        "blocks, and flowing lava to match the rate of the current time-speed, by bringing their deadlines forward.",
+                        "This effect does not apply if time speed is 1.0 or less.",
+                        "When set to ALWAYS, this effect applies around all players in the dimension, day or night.",
+                        "When set to SLEEPING, this effect only applies around players who are sleeping.")
+                        .defineEnum("scheduledTickEffect", EffectCondition.NEVER);
+
+                    scheduledTickEffectRadius = builder
+                        .comment("The distance in blocks around each player that scheduledTickEffect applies to.")
+                        .defineInRange("scheduledTickEffectRadius", 64, 0, 512);
+
+                    scheduledTickEffectBudget = builder.comment(
+                        "The maximum number of scheduled ticks moved by scheduledTickEffect each tick. Chunks that are not reached",
+                        "in one tick are progressed in the following ticks. Each chunk visited counts as at least one scheduled tick.")
+                        .defineInRange("scheduledTickEffectBudget", 4096, 1, 1000000);
+
                 builder.pop(); // time.effects
             builder.pop(); // time
 
@@ -190,6 +269,13 @@ public class HourglassConfig {
                     "Credit to SmoothSleep for the idea: https://www.spigotmc.org/resources/smoothsleep.32043/")
                     .defineInRange("sleepSpeedCurve", 0.3D, 0D, 1D);
 
+                instantSleep = builder.comment(
+                    "When true, the night is skipped in a single tick once all players are sleeping, instead of accelerating time.",
+                    "Time effects are applied in bulk for the skipped time, and clients animate the sky to the new time.",
+                    "Unlike accelerated time, a skip does not grow crops through randomTickEffect or progress hunger through",
+                    "hungerEffect, and blockEntityEffect catches up on at most one minute of the skip over the following ticks.")
+                    .define("instantSleep", false);
+
                 clearWeatherOnWake = builder.comment(
                     "Set to 'true' for the weather to clear when players wake up in the morning as it does in vanilla.",
                     "Set to 'false' to force weather to pass naturally. Adds realism when accelerateWeather is enabled.",
@@ -219,6 +305,12 @@ public class HourglassConfig {
                     "\tSLEEPING: Sends the message to all players in the current dimension who are sleeping.")
                     .push("messages");
 
+                    messageCoalesceTicks = builder.comment(
+                        "The number of ticks over which players entering and leaving their beds are collected into a single",
+                        "message. When more than one player enters (or leaves) their bed within this window, the summary message",
+                        "is sent instead of one message per player. Set to 0 to send every message immediately.")
+                        .defineInRange("coalesceTicks", 0, 0, 200);
+
                     // sleep.messages.morning
                     builder.comment("This message is sent after a sleep cycle has completed.").push("morning");
                         morningMessage = builder.comment(
@@ -248,6 +340,12 @@ public class HourglassConfig {
                             .defineEnum("type", ChatTypeOptions.GAME_INFO, ChatTypeOptions.SYSTEM, ChatTypeOptions.GAME_INFO);
                         enterBedMessageTarget = builder.comment("Sets to whom this message is sent.")
                             .defineEnum("target", MessageTarget.DIMENSION);
+                        enterBedSummaryMessage = builder.comment(
+                            "This message is sent instead when more than one player enters their bed within coalesceTicks.",
+                            "Available variables:",
+                            "count -> the number of players who started sleeping.",
+                            "sleepingPlayers, totalPlayers, sleepingPercentage -> as above.")
+                            .define("summaryMessage", "${count} players went to bed. [${sleepingPlayers}/${totalPlayers}]");
                     builder.pop(); // sleep.messages.enterBed
 
                     // sleep.messages.leaveBed
@@ -263,11 +361,103 @@ public class HourglassConfig {
                             .defineEnum("type", ChatTypeOptions.GAME_INFO, ChatTypeOptions.SYSTEM, ChatTypeOptions.GAME_INFO);
                         leaveBedMessageTarget = builder.comment("Sets to whom this message is sent.")
                             .defineEnum("target", MessageTarget.DIMENSION);
+                        leaveBedSummaryMessage = builder.comment(
+                            "This message is sent instead when more than one player leaves their bed within coalesceTicks.",
+                            "Available variables:",
+                            "count -> the number of players who left their bed.",
+                            "sleepingPlayers, totalPlayers, sleepingPercentage -> as above.")
+                            .define("summaryMessage", "${count} players left their bed. [${sleepingPlayers}/${totalPlayers}]");
                     builder.pop(); // sleep.messages.leaveBed
 
                 builder.pop(); // sleep.messages
             builder.pop(); // sleep
 
+            builder.push("performance"); // performance
+
+                enableGovernor = builder.comment(
+                    "When true, Hourglass monitors the average server tick time and scales back its own work as the server approaches",
+                    "governorTargetTickTime. As load rises, the extra ticks applied by time effects are reduced, time effects switch to",
+                    "batched updates, and finally sleep speed is capped at governorSleepSpeedCap. Normal behavior resumes automatically.")
+                    .define("enableGovernor", false);
+
+                governorTargetTickTime = builder.comment(
+                    "The average tick time, in milliseconds, that the governor tries to keep the server under.",
+                    "Vanilla servers aim for 50ms per tick.")
+                    .defineInRange("governorTargetTickTime", 50D, 1D, 1000D);
+
+                governorSleepSpeedCap = builder
+                    .comment("The maximum sleep speed allowed while the governor is in its most restrictive stage.")
+                    .defineInRange("governorSleepSpeedCap", 30D, 1D, Time.DAY_LENGTH.doubleValue());
+
+                enableMetrics = builder.comment(
+                    "When true, Hourglass exports its metrics (time speed, sleeping players, time effect and tick costs) in the",
+                    "OpenMetrics text format for scraping by Prometheus. Metrics settings take effect when the server starts.")
+                    .define("enableMetrics", false);
+
+                metricsFile = builder.comment(
+                    "The file, relative to the server directory, that metrics are periodically written to.",
+                    "Set to an empty string to disable writing metrics to a file.")
+                    .define("metricsFile", "hourglass-metrics.prom");
+
+                metricsInterval = builder
+                    .comment("The number of seconds between writes of the metrics file.")
+                    .defineInRange("metricsInterval", 15, 1, 3600);
+
+                metricsPort = builder.comment(
+                    "The port of an HTTP endpoint serving metrics at /metrics. The endpoint only listens on the loopback",
+                    "address. Set to 0 to disable the endpoint.")
+                    .defineInRange("metricsPort", 0, 0, 65535);
+
+                enableNetworkTelemetry = builder.comment(
+                    "When true, Hourglass counts the packets and bytes it sends to each player. The counts are shown by the",
+                    "\"/hourglass query network\" command and exported with the other metrics.")
+                    .define("enableNetworkTelemetry", false);
+
+                enableTimeTrace = builder.comment(
+                    "When true, Hourglass records the time, time speed, sleeping players, config and time effect work of",
+                    "every tick to hourglass-trace.bin in the world folder. The trace can be replayed offline with",
+                    "net.lavabucket.hourglass.profiling.trace.TimeTraceReplay to check for time jumps and missed mornings.")
+                    .define("enableTimeTrace", false);
+
+                timeTraceTicks = builder.comment(
+                    "The number of most recent ticks kept in the time trace. Each tick uses 192 bytes.",
+                    "Changes take effect the next time the trace is enabled.")
+                    .defineInRange("timeTraceTicks", 36000, 1200, 1728000);
+
+                asyncMessageDelivery = builder.comment(
+                    "When true, sleep messages are handed to each player's connection from a background thread, so large",
+                    "broadcasts do not slow down the server tick. Messages may then arrive out of order with other packets,",
+                    "such as time updates or waking up in the morning. Takes effect when the server starts.")
+                    .define("asyncMessageDelivery", false);
+
+                timeSpeedEventThreshold = builder.comment(
+                    "The amount the time speed must change by before Hourglass notifies other mods with a TimeSpeedChangedEvent.",
+                    "Lower values notify other mods of smaller changes, at the cost of more frequent events.")
+                    .defineInRange("timeSpeedEventThreshold", 0.01, 0, 24000);
+
+                idleFastPath = builder.comment(
+                    "When true, Hourglass stops updating the time of the Overworld while no players are in it or in a dimension",
+                    "that shares its time. The time that passed is calculated in a single step when a player joins, when the",
+                    "world is saved, or when an Hourglass command needs it, and time effects are applied for it in bulk.",
+                    "While enabled, other mods do not see the day time change while the Overworld is empty.")
+                    .define("idleFastPath", false);
+
+            builder.pop(); // performance
+
+            builder.push("commands"); // commands
+
+                configPresets = builder.comment(
+                    "Named groups of config values that can be applied at once with \"/hourglass config preset <name>\".",
+                    "Each preset has the format \"name: config=value config=value ...\", using the same config names as the",
+                    "\"/hourglass config\" command.")
+                    .defineListAllowEmpty(List.of("configPresets"), () -> List.of(
+                        "vanilla: daySpeed=1 nightSpeed=1 sleepSpeedMin=1 sleepSpeedMax=110 sleepSpeedAll=-1 sleepSpeedCurve=0.3",
+                        "longDays: daySpeed=0.5 nightSpeed=1",
+                        "shortNights: daySpeed=1 nightSpeed=2 sleepSpeedMax=200"),
+                        preset -> preset instanceof String string && string.indexOf(':') > 0);
+
+            builder.pop(); // commands
+
             spec = builder.build();
         }
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.event;
+
+import net.lavabucket.hourglass.time.TimeTriggers;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.level.LevelEvent;
+
+/**
+ * Posted on the Forge event bus when Hourglass starts managing the time of a level, so that other
+ * mods can schedule time triggers for it. Triggers are discarded when the level is unloaded.
+ *
+ * <p>This event is posted on the server thread and is not cancelable.
+ */
+public class RegisterTimeTriggersEvent extends LevelEvent {
+
+    private final TimeTriggers triggers;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param level  the level whose time is managed by Hourglass
+     * @param triggers  the triggers of the level
+     */
+    public RegisterTimeTriggersEvent(ServerLevel level, TimeTriggers triggers) {
+        super(level);
+        this.triggers = triggers;
+    }
+
+    /** {@return the triggers of the level, used to schedule new triggers} */
+    public TimeTriggers getTriggers() {
+        return triggers;
+    }
+
+}
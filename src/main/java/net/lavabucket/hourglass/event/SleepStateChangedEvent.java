@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.event;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.level.LevelEvent;
+
+/**
+ * Posted on the Forge event bus at the end of a tick in which the number of sleeping or active
+ * players in a level managed by Hourglass changed.
+ *
+ * <p>This event is posted on the server thread and is not cancelable.
+ */
+public class SleepStateChangedEvent extends LevelEvent {
+
+    private final int oldSleeping;
+    private final int oldActive;
+    private final int newSleeping;
+    private final int newActive;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param level  the level whose sleep state changed
+     * @param oldSleeping  the previous number of sleeping players
+     * @param oldActive  the previous number of active players
+     * @param newSleeping  the current number of sleeping players
+     * @param newActive  the current number of active players
+     */
+    public SleepStateChangedEvent(ServerLevel level, int oldSleeping, int oldActive,
+            int newSleeping, int newActive) {
+        super(level);
+        this.oldSleeping = oldSleeping;
+        this.oldActive = oldActive;
+        this.newSleeping = newSleeping;
+        this.newActive = newActive;
+    }
+
+    /** {@return the previous number of sleeping players} */
+    public int getOldSleeping() {
+        return oldSleeping;
+    }
+
+    /** {@return the previous number of active players} */
+    public int getOldActive() {
+        return oldActive;
+    }
+
+    /** {@return the current number of sleeping players} */
+    public int getNewSleeping() {
+        return newSleeping;
+    }
+
+    /** {@return the current number of active players} */
+    public int getNewActive() {
+        return newActive;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.event;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraftforge.event.level.LevelEvent;
+
+/**
+ * Posted on the Forge event bus at the end of a tick in which the time speed of a level managed by
+ * Hourglass changed by more than the {@code timeSpeedEventThreshold} config since the last time
+ * this event was posted. Integrations can listen for this event instead of polling the time speed
+ * every tick.
+ *
+ * <p>This event is posted on the server thread and is not cancelable.
+ */
+public class TimeSpeedChangedEvent extends LevelEvent {
+
+    private final double oldSpeed;
+    private final double newSpeed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param level  the level whose time speed changed
+     * @param oldSpeed  the time speed reported by the previous event
+     * @param newSpeed  the current time speed
+     */
+    public TimeSpeedChangedEvent(ServerLevel level, double oldSpeed, double newSpeed) {
+        super(level);
+        this.oldSpeed = oldSpeed;
+        this.newSpeed = newSpeed;
+    }
+
+    /** {@return the time speed reported by the previous event, 1 being vanilla speed} */
+    public double getOldSpeed() {
+        return oldSpeed;
+    }
+
+    /** {@return the current time speed, 1 being vanilla speed} */
+    public double getNewSpeed() {
+        return newSpeed;
+    }
+
+    /** {@return true if time is now elapsing faster than vanilla} */
+    public boolean isAccelerated() {
+        return newSpeed > 1;
+    }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.gametest;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import net.lavabucket.hourglass.Hourglass;
+import net.lavabucket.hourglass.profiling.RollingHistogram;
+import net.lavabucket.hourglass.profiling.TickProfiler;
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeService;
+import net.lavabucket.hourglass.time.TimeServiceManager;
+import net.lavabucket.hourglass.time.effects.EffectCondition;
+import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestGenerator;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.TestFunction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.GameRules;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.HopperBlock;
+import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+import net.minecraft.world.level.block.entity.HopperBlockEntity;
+import net.minecraftforge.common.ForgeConfigSpec.EnumValue;
+import net.minecraftforge.gametest.GameTestHolder;
+
+/**
+ * Performance gametests that pass a night with simulated players and busy block entities under
+ * different time effect configurations, and fail when Hourglass or the server exceeds its tick
+ * time budget.
+ *
+ * <p>Each test spawns the number of mock players given by its {@link Scale}, some of whom sleep,
+ * and a grid of hoppers feeding furnaces. Every configuration is run at {@link Scale#SMALL}, and
+ * every effect condition applied to all time effects is also run at {@link Scale#LARGE}. Tests run
+ * one at a time because they share the Overworld time and the server config. Run them with the
+ * {@code gameTestServer} run configuration.
+ */
+@GameTestHolder(Hourglass.MOD_ID)
+public class PerformanceGameTests {
+
+    /** The largest p99 duration of an Hourglass tick allowed, in milliseconds. */
+    public static final double HOURGLASS_TICK_BUDGET = 5;
+    /** The largest average server tick time allowed, in milliseconds. */
+    public static final double SERVER_TICK_BUDGET = 50;
+
+    private static final String TEMPLATE = "forge:empty3x3x3";
+    private static final int MAX_TICKS = 2400;
+    private static final long NIGHT = 13000;
+
+    /**
+     * The size of a test.
+     *
+     * @param players  the number of mock players spawned
+     * @param sleepingPlayers  the number of mock players that sleep
+     * @param blockEntities  the number of hoppers and furnaces placed, each
+     */
+    public record Scale(int players, int sleepingPlayers, int blockEntities) {
+        /** A small server, run for every configuration. */
+        public static final Scale SMALL = new Scale(8, 4, 9);
+        /** A large server, run for every effect condition applied to all time effects. */
+        public static final Scale LARGE = new Scale(100, 50, 1024);
+    }
+
+    /**
+     * Generates a test for every effect condition applied to all time effects at once, at both
+     * scales, and a test for every time effect enabled on its own.
+     *
+     * @return the generated tests
+     */
+    @GameTestGenerator
+    public static Collection<TestFunction> generatePerformanceTests() {
+        List<TestFunction> tests = new ArrayList<>();
+        List<EnumValue<EffectCondition>> effects = getEffectConfigs();
+
+        for (EffectCondition condition : EffectCondition.values()) {
+            String name = "all_" + condition.name().toLowerCase(Locale.ROOT);
+            Map<EnumValue<EffectCondition>, EffectCondition> conditions = effects.stream()
+                    .collect(Collectors.toMap(e -> e, e -> condition));
+            tests.add(createTest(name, conditions, Scale.SMALL));
+            tests.add(createTest("large_" + name, conditions, Scale.LARGE));
+        }
+
+        for (EnumValue<EffectCondition> effect : effects) {
+            String name = "only_" + effect.getPath().get(effect.getPath().size() - 1)
+                    .toLowerCase(Locale.ROOT);
+            tests.add(createTest(name, effects.stream().collect(Collectors.toMap(e -> e,
+                    e -> e == effect ? EffectCondition.ALWAYS : EffectCondition.NEVER)),
+                    Scale.SMALL));
+        }
+
+        return tests;
+    }
+
+    private static List<EnumValue<EffectCondition>> getEffectConfigs() {
+        return List.of(
+                SERVER_CONFIG.weatherEffect,
+                SERVER_CONFIG.randomTickEffect,
+                SERVER_CONFIG.potionEffect,
+                SERVER_CONFIG.hungerEffect,
+                SERVER_CONFIG.blockEntityEffect,
+                SERVER_CONFIG.entityEffect,
+                SERVER_CONFIG.scheduledTickEffect);
+    }
+
+    /**
+     * Creates a test that passes a night with the given effect conditions at the given scale.
+     * Every test gets its own batch so that tests run sequentially.
+     */
+    private static TestFunction createTest(String name,
+            Map<EnumValue<EffectCondition>, EffectCondition> conditions, Scale scale) {
+        String testName = "performance." + name;
+        return new TestFunction(testName, testName, TEMPLATE, MAX_TICKS, 0, true,
+                helper -> runNight(helper, conditions, scale));
+    }
+
+    /**
+     * Sets up the level, then passes and profiles a night. Everything changed by the test is
+     * restored once morning passes, or just before the test times out.
+     */
+    private static void runNight(GameTestHelper helper,
+            Map<EnumValue<EffectCondition>, EffectCondition> conditions, Scale scale) {
+        TimeService service = TimeServiceManager.service;
+        ServerLevel level = helper.getLevel();
+        if (service == null || !service.managesLevel(new ServerLevelWrapper(level))) {
+            helper.fail("Hourglass does not manage the test level.");
+            return;
+        }
+
+        Map<EnumValue<EffectCondition>, EffectCondition> previous = new HashMap<>();
+        conditions.forEach((config, condition) -> {
+            previous.put(config, config.get());
+            config.set(condition);
+        });
+        boolean sleepFeature = SERVER_CONFIG.enableSleepFeature.get();
+        SERVER_CONFIG.enableSleepFeature.set(true);
+        GameRules.BooleanValue daylightRule = level.getGameRules().getRule(GameRules.RULE_DAYLIGHT);
+        boolean daylight = daylightRule.get();
+        daylightRule.set(true, level.getServer());
+        level.setWeatherParameters(0, 6000, true, false);
+
+        List<BlockPos> blocks = placeBlockEntities(helper, scale.blockEntities());
+        List<ServerPlayer> players = spawnPlayers(helper, scale);
+        level.setDayTime(NIGHT);
+
+        AtomicBoolean cleanedUp = new AtomicBoolean();
+        Runnable cleanup = () -> {
+            if (cleanedUp.getAndSet(true)) {
+                return;
+            }
+            service.profiler.stop();
+            players.forEach(player -> level.getServer().getPlayerList().remove(player));
+            blocks.forEach(pos -> removeBlock(helper, pos));
+            previous.forEach(EnumValue::set);
+            SERVER_CONFIG.enableSleepFeature.set(sleepFeature);
+            daylightRule.set(daylight, level.getServer());
+        };
+
+        // Config values are saved to disk when set, so they must be restored even on timeout.
+        helper.runAfterDelay(MAX_TICKS - 1, cleanup);
+        service.profiler.start();
+        helper.onEachTick(() -> {
+            if (Time.timeOfDay(level.getDayTime()) >= NIGHT) {
+                return;
+            }
+
+            // Morning has passed.
+            RollingHistogram.Summary total = service.profiler.report().get(TickProfiler.TOTAL_PHASE);
+            double hourglassTime = total == null ? 0 : total.p99() / 1_000_000D;
+            double serverTime = new ServerLevelWrapper(level).getAverageTickTime();
+            cleanup.run();
+
+            if (hourglassTime > HOURGLASS_TICK_BUDGET) {
+                helper.fail(String.format("Hourglass p99 tick time %.2f ms exceeds budget of %.2f ms.",
+                        hourglassTime, HOURGLASS_TICK_BUDGET));
+            } else if (serverTime > SERVER_TICK_BUDGET) {
+                helper.fail(String.format("Average server tick time %.2f ms exceeds budget of %.2f ms.",
+                        serverTime, SERVER_TICK_BUDGET));
+            } else {
+                helper.succeed();
+            }
+        });
+    }
+
+    /**
+     * Places {@code count} loaded furnaces, each below a loaded hopper, in a square grid starting
+     * at the test origin. Grids larger than the test structure extend past it.
+     *
+     * @return the relative positions of the placed blocks
+     */
+    private static List<BlockPos> placeBlockEntities(GameTestHelper helper, int count) {
+        List<BlockPos> blocks = new ArrayList<>();
+        int size = (int) Math.ceil(Math.sqrt(count));
+        for (int i = 0; i < count; i++) {
+            BlockPos furnacePos = new BlockPos(i % size, 0, i / size);
+            helper.setBlock(furnacePos, Blocks.FURNACE);
+            if (helper.getBlockEntity(furnacePos) instanceof AbstractFurnaceBlockEntity furnace) {
+                furnace.setItem(1, new ItemStack(Items.COAL_BLOCK, 64));
+            }
+
+            BlockPos hopperPos = furnacePos.above();
+            helper.setBlock(hopperPos, Blocks.HOPPER.defaultBlockState()
+                    .setValue(HopperBlock.FACING, Direction.DOWN));
+            if (helper.getBlockEntity(hopperPos) instanceof HopperBlockEntity hopper) {
+                for (int slot = 0; slot < hopper.getContainerSize(); slot++) {
+                    hopper.setItem(slot, new ItemStack(Items.RAW_IRON, 64));
+                }
+            }
+
+            blocks.add(hopperPos);
+            blocks.add(furnacePos);
+        }
+        return blocks;
+    }
+
+    /** Removes the block at {@code pos} without dropping the contents of its container. */
+    private static void removeBlock(GameTestHelper helper, BlockPos pos) {
+        if (helper.getBlockEntity(pos) instanceof Container container) {
+            container.clearContent();
+        }
+        helper.setBlock(pos, Blocks.AIR);
+    }
+
+    /** Spawns the mock players above the block entities and puts some of them to sleep. */
+    private static List<ServerPlayer> spawnPlayers(GameTestHelper helper, Scale scale) {
+        List<ServerPlayer> players = new ArrayList<>();
+        BlockPos bedPos = helper.absolutePos(new BlockPos(1, 2, 1));
+
+        for (int i = 0; i < scale.players(); i++) {
+            ServerPlayer player = helper.makeMockServerPlayerInLevel();
+            player.moveTo(bedPos.getX() + 0.5, bedPos.getY(), bedPos.getZ() + 0.5);
+            player.addEffect(new MobEffectInstance(MobEffects.REGENERATION, MAX_TICKS * 100));
+            if (i < scale.sleepingPlayers()) {
+                player.startSleeping(bedPos);
+            }
+            players.add(player);
+        }
+
+        helper.getLevel().updateSleepingPlayerList();
+        return players;
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template parsed into literal segments and variable slots.
+ *
+ * <p>Variables are written as {@code ${name}} or {@code ${name:-default}}, and <code>$${</code> is
+ * written out as a literal <code>${</code>. This matches the syntax the message config options have
+ * always used, but the template is only parsed once rather than every time a message is sent.
+ *
+ * <p>Each distinct variable name gets one slot, numbered in order of first appearance. Values are
+ * filled into slots by {@link #render(StringBuilder, String[], long[], boolean[])}, which appends
+ * numbers directly to the builder instead of converting them to strings first.
+ */
+public final class CompiledTemplate {
+
+    private static final String PREFIX = "${";
+    private static final String SUFFIX = "}";
+    private static final String DEFAULT_DELIMITER = ":-";
+
+    // literals[i] is written before segment i; literals has one more element than segments
+    private final String[] literals;
+    private final int[] segmentSlots;
+    private final String[] segmentDefaults;
+    private final String[] variables;
+    private final String template;
+
+    private CompiledTemplate(String template, List<String> literals, List<Integer> segmentSlots,
+            List<String> segmentDefaults, List<String> variables) {
+        this.template = template;
+        this.literals = literals.toArray(String[]::new);
+        this.segmentSlots = segmentSlots.stream().mapToInt(Integer::intValue).toArray();
+        this.segmentDefaults = segmentDefaults.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param template  the template to parse
+     * @return the compiled template
+     */
+    public static CompiledTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> segmentSlots = new ArrayList<>();
+        List<String> segmentDefaults = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < template.length()) {
+            if (template.startsWith("$" + PREFIX, index)) {
+                literal.append(PREFIX);
+                index += PREFIX.length() + 1;
+                continue;
+            }
+
+            int end = template.indexOf(SUFFIX, index + PREFIX.length());
+            if (!template.startsWith(PREFIX, index) || end < 0) {
+                literal.append(template.charAt(index++));
+                continue;
+            }
+
+            String name = template.substring(index + PREFIX.length(), end);
+            String defaultValue = null;
+            int delimiter = name.indexOf(DEFAULT_DELIMITER);
+            if (delimiter >= 0) {
+                defaultValue = name.substring(delimiter + DEFAULT_DELIMITER.length());
+                name = name.substring(0, delimiter);
+            }
+
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                slot = variables.size();
+                variables.add(name);
+            }
+
+            literals.add(literal.toString());
+            literal.setLength(0);
+            segmentSlots.add(slot);
+            // Undefined variables without a default are left in the message as written.
+            segmentDefaults.add(defaultValue != null ? defaultValue : template.substring(index, end + 1));
+            index = end + SUFFIX.length();
+        }
+        literals.add(literal.toString());
+
+        return new CompiledTemplate(template, literals, segmentSlots, segmentDefaults, variables);
+    }
+
+    /** {@return the template this object was compiled from} */
+    public String getTemplate() {
+        return template;
+    }
+
+    /** {@return the number of variable slots in this template} */
+    public int getSlotCount() {
+        return variables.length;
+    }
+
+    /**
+     * {@return the slot of the variable named {@code name}, or -1 if the template does not use it}
+     * @param name  the variable name
+     */
+    public int getSlot(String name) {
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends this template to {@code builder}, filling in each slot. Slot {@code i} is filled with
+     * {@code numbers[i]} if {@code isNumber[i]} is true, otherwise with {@code strings[i]}. A slot
+     * with a null string is treated as undefined.
+     *
+     * @param builder  the builder to append to
+     * @param strings  the string value of each slot
+     * @param numbers  the numeric value of each slot
+     * @param isNumber  whether each slot holds a numeric value
+     * @return {@code builder}
+     */
+    public StringBuilder render(StringBuilder builder, String[] strings, long[] numbers,
+            boolean[] isNumber) {
+        for (int i = 0; i < segmentSlots.length; i++) {
+            builder.append(literals[i]);
+            int slot = segmentSlots[i];
+            if (isNumber[slot]) {
+                builder.append(numbers[slot]);
+            } else if (strings[slot] != null) {
+                builder.append(strings[slot]);
+            } else {
+                builder.append(segmentDefaults[i]);
+            }
+        }
+        return builder.append(literals[segmentSlots.length]);
+    }
+
+}
@@ -35,6 +35,13 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 /** This class listens for events and sends out Hourglass chat notifications. */
 public class HourglassMessages {
 
+    // Reused for every message of their kind so templates are only compiled when the config changes
+    private static final TemplateMessage ENTER_BED_MESSAGE = new TemplateMessage();
+    private static final TemplateMessage LEAVE_BED_MESSAGE = new TemplateMessage();
+    private static final TemplateMessage ENTER_BED_SUMMARY = new TemplateMessage();
+    private static final TemplateMessage LEAVE_BED_SUMMARY = new TemplateMessage();
+    private static final TemplateMessage MORNING_MESSAGE = new TemplateMessage();
+
     /**
      * Event listener that is called every tick for every player who is sleeping.
      * @param event  the event provided by the Forge event bus
@@ -51,7 +58,7 @@ public class HourglassMessages {
                 && service.level.get().players().size() > 1
                 && service.level.daylightRuleEnabled()) {
 
-            sendEnterBedMessage(new ServerPlayerWrapper(event.getEntity()));
+            SleepNotificationAggregator.onEnterBed(new ServerPlayerWrapper(event.getEntity()));
         }
     }
 
@@ -71,7 +78,7 @@ public class HourglassMessages {
                 && service.level.get().players().size() > 1
                 && service.level.daylightRuleEnabled()) {
 
-            sendLeaveBedMessage(new ServerPlayerWrapper(event.getEntity()));
+            SleepNotificationAggregator.onLeaveBed(new ServerPlayerWrapper(event.getEntity()));
         }
     }
 
@@ -103,6 +110,22 @@ public class HourglassMessages {
      * @param player  the player who started sleeping
      */
     public static void sendEnterBedMessage(ServerPlayerWrapper player) {
+        TimeService timeService = TimeServiceManager.service;
+        if (timeService != null) {
+            sendEnterBedMessage(player.getLevel(), player.get().getGameProfile().getName(),
+                    timeService.sleepStatus.amountSleeping());
+        }
+    }
+
+    /**
+     * Sends the enter bed message for a player who may no longer be online.
+     *
+     * @param level  the level the player entered their bed in
+     * @param playerName  the name of the player who started sleeping
+     * @param sleepingPlayers  the number of sleeping players to display
+     */
+    static void sendEnterBedMessage(ServerLevelWrapper level, String playerName,
+            int sleepingPlayers) {
         String templateMessage = SERVER_CONFIG.enterBedMessage.get();
         TimeService timeService = TimeServiceManager.service;
 
@@ -112,13 +135,42 @@ public class HourglassMessages {
 
         SleepStatus sleepStatus = timeService.sleepStatus;
 
-        new TemplateMessage().setTemplate(templateMessage)
+        ENTER_BED_MESSAGE.setTemplate(templateMessage)
+                .setOverlay(SERVER_CONFIG.enterBedMessageType.get().isOverlay())
+                .setVariable("player", playerName)
+                .setVariable("totalPlayers", sleepStatus.amountActive())
+                .setVariable("sleepingPlayers", sleepingPlayers)
+                .setVariable("sleepingPercentage", sleepStatus.percentage())
+                .bake().send(SERVER_CONFIG.enterBedMessageTarget.get(), level);
+    }
+
+    /**
+     * Sends a message to all targeted players informing them that several players have entered
+     * their beds.
+     *
+     * The message is set by {@link HourglassConfig.ServerConfig#enterBedSummaryMessage}.
+     * The target and message type are the same as {@link #sendEnterBedMessage(ServerPlayerWrapper)}.
+     *
+     * @param level  the level the players entered their beds in
+     * @param count  the number of players who started sleeping
+     */
+    static void sendEnterBedSummary(ServerLevelWrapper level, int count) {
+        String templateMessage = SERVER_CONFIG.enterBedSummaryMessage.get();
+        TimeService timeService = TimeServiceManager.service;
+
+        if (templateMessage.isEmpty() || timeService == null) {
+            return;
+        }
+
+        SleepStatus sleepStatus = timeService.sleepStatus;
+
+        ENTER_BED_SUMMARY.setTemplate(templateMessage)
                 .setOverlay(SERVER_CONFIG.enterBedMessageType.get().isOverlay())
-                .setVariable("player", player.get().getGameProfile().getName())
-                .setVariable("totalPlayers", Integer.toString(sleepStatus.amountActive()))
-                .setVariable("sleepingPlayers", Integer.toString(sleepStatus.amountSleeping()))
-                .setVariable("sleepingPercentage", Integer.toString(sleepStatus.percentage()))
-                .bake().send(SERVER_CONFIG.enterBedMessageTarget.get(), player.getLevel());
+                .setVariable("count", count)
+                .setVariable("totalPlayers", sleepStatus.amountActive())
+                .setVariable("sleepingPlayers", sleepStatus.amountSleeping())
+                .setVariable("sleepingPercentage", sleepStatus.percentage())
+                .bake().send(SERVER_CONFIG.enterBedMessageTarget.get(), level);
     }
 
     /**
@@ -131,6 +183,23 @@ public class HourglassMessages {
      * @param player  the player who left their bed
      */
     public static void sendLeaveBedMessage(ServerPlayerWrapper player) {
+        TimeService timeService = TimeServiceManager.service;
+        if (timeService != null) {
+            // The player is still counted as sleeping while the wake up event is posted.
+            sendLeaveBedMessage(player.getLevel(), player.get().getGameProfile().getName(),
+                    timeService.sleepStatus.amountSleeping() - 1);
+        }
+    }
+
+    /**
+     * Sends the leave bed message for a player who may no longer be online.
+     *
+     * @param level  the level the player left their bed in
+     * @param playerName  the name of the player who left their bed
+     * @param sleepingPlayers  the number of sleeping players to display
+     */
+    static void sendLeaveBedMessage(ServerLevelWrapper level, String playerName,
+            int sleepingPlayers) {
         String templateMessage = SERVER_CONFIG.leaveBedMessage.get();
         TimeService timeService = TimeServiceManager.service;
 
@@ -140,13 +209,42 @@ public class HourglassMessages {
 
         SleepStatus sleepStatus = timeService.sleepStatus;
 
-        new TemplateMessage().setTemplate(templateMessage)
+        LEAVE_BED_MESSAGE.setTemplate(templateMessage)
+                .setOverlay(SERVER_CONFIG.leaveBedMessageType.get().isOverlay())
+                .setVariable("player", playerName)
+                .setVariable("totalPlayers", sleepStatus.amountActive())
+                .setVariable("sleepingPlayers", sleepingPlayers)
+                .setVariable("sleepingPercentage", sleepStatus.percentage())
+                .bake().send(SERVER_CONFIG.leaveBedMessageTarget.get(), level);
+    }
+
+    /**
+     * Sends a message to all targeted players informing them that several players have left their
+     * beds.
+     *
+     * The message is set by {@link HourglassConfig.ServerConfig#leaveBedSummaryMessage}.
+     * The target and message type are the same as {@link #sendLeaveBedMessage(ServerPlayerWrapper)}.
+     *
+     * @param level  the level the players left their beds in
+     * @param count  the number of players who left their beds
+     */
+    static void sendLeaveBedSummary(ServerLevelWrapper level, int count) {
+        String templateMessage = SERVER_CONFIG.leaveBedSummaryMessage.get();
+        TimeService timeService = TimeServiceManager.service;
+
+        if (templateMessage.isEmpty() || timeService == null) {
+            return;
+        }
+
+        SleepStatus sleepStatus = timeService.sleepStatus;
+
+        LEAVE_BED_SUMMARY.setTemplate(templateMessage)
                 .setOverlay(SERVER_CONFIG.leaveBedMessageType.get().isOverlay())
-                .setVariable("player", player.get().getGameProfile().getName())
-                .setVariable("totalPlayers", Integer.toString(sleepStatus.amountActive()))
-                .setVariable("sleepingPlayers", Integer.toString(sleepStatus.amountSleeping() - 1))
-                .setVariable("sleepingPercentage", Integer.toString(sleepStatus.percentage()))
-                .bake().send(SERVER_CONFIG.leaveBedMessageTarget.get(), player.getLevel());
+                .setVariable("count", count)
+                .setVariable("totalPlayers", sleepStatus.amountActive())
+                .setVariable("sleepingPlayers", sleepStatus.amountSleeping())
+                .setVariable("sleepingPercentage", sleepStatus.percentage())
+                .bake().send(SERVER_CONFIG.leaveBedMessageTarget.get(), level);
     }
 
     /**
@@ -169,11 +267,11 @@ public class HourglassMessages {
 
         SleepStatus sleepStatus = timeService.sleepStatus;
 
-        new TemplateMessage().setTemplate(templateMessage)
+        MORNING_MESSAGE.setTemplate(templateMessage)
                 .setOverlay(SERVER_CONFIG.morningMessageType.get().isOverlay())
-                .setVariable("totalPlayers", Integer.toString(sleepStatus.amountActive()))
-                .setVariable("sleepingPlayers", Integer.toString(sleepStatus.amountSleeping()))
-                .setVariable("sleepingPercentage", Integer.toString(sleepStatus.percentage()))
+                .setVariable("totalPlayers", sleepStatus.amountActive())
+                .setVariable("sleepingPlayers", sleepStatus.amountSleeping())
+                .setVariable("sleepingPercentage", sleepStatus.percentage())
                 .bake().send(SERVER_CONFIG.morningMessageTarget.get(), level);
 
         // JSON version to implement later:
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.message;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Delivers a packet to many players off the server thread.
+ *
+ * <p>Delivery is split in two steps. On the server thread, {@link #deliver(Packet, Collection)}
+ * captures the recipients' connections into an immutable {@link Job}, which is cheap. On a single
+ * background thread, the job hands the same packet instance to each connection, which queues it on
+ * that connection's Netty event loop. Jobs run in the order they were submitted.
+ *
+ * <p>When {@code asyncMessageDelivery} is disabled, or no server is running, jobs run immediately
+ * on the calling thread.
+ */
+public final class MessageDelivery {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // How long to wait for pending jobs when the server stops
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private static volatile ExecutorService executor;
+
+    private MessageDelivery() {}
+
+    /**
+     * Starts the delivery thread if asynchronous delivery is enabled in the server config.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (SERVER_CONFIG.asyncMessageDelivery.get()) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("Hourglass Message Delivery")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
+
+    /**
+     * Stops the delivery thread after delivering pending jobs.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        ExecutorService oldExecutor = executor;
+        if (oldExecutor == null) {
+            return;
+        }
+
+        executor = null;
+        oldExecutor.shutdown();
+        try {
+            if (!oldExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn(MARKER, "Timed out delivering pending messages.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends {@code packet} to every player in {@code recipients}. Must be called on the server
+     * thread.
+     *
+     * @param packet  the packet to send, which must not be modified afterwards
+     * @param recipients  the players to send the packet to
+     */
+    public static void deliver(Packet<?> packet, Collection<ServerPlayerWrapper> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        Job job = new Job(packet, recipients.stream()
+                .map(player -> player.get().connection)
+                .toList());
+
+        ExecutorService currentExecutor = executor;
+        if (currentExecutor != null) {
+            try {
+                currentExecutor.execute(job);
+                return;
+            } catch (RejectedExecutionException e) {
+                // The server is stopping, so deliver on this thread instead.
+            }
+        }
+        job.run();
+    }
+
+    /**
+     * An immutable delivery of one packet to a list of connections.
+     *
+     * @param packet  the packet to send
+     * @param connections  the connections to send the packet to
+     */
+    public record Job(Packet<?> packet, List<ServerGamePacketListenerImpl> connections)
+            implements Runnable {
+
+        /** Creates a new instance with an unmodifiable copy of {@code connections}. */
+        public Job {
+            connections = List.copyOf(connections);
+        }
+
+        @Override
+        public void run() {
+            for (ServerGamePacketListenerImpl connection : connections) {
+                try {
+                    connection.send(packet);
+                } catch (RuntimeException e) {
+                    LOGGER.debug(MARKER, "Failed to deliver message.", e);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.message;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import net.lavabucket.hourglass.time.TimeService;
+import net.lavabucket.hourglass.time.TimeServiceManager;
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.SleepFinishedTimeEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Collects players entering and leaving their beds over the window set by
+ * {@link net.lavabucket.hourglass.config.HourglassConfig.ServerConfig#messageCoalesceTicks}, and
+ * sends one message per kind at the end of the window. A single player is announced with the
+ * regular message, several players with the summary message. A player who enters and leaves their
+ * bed within the same window is not announced at all.
+ *
+ * <p>This keeps a wave of players going to bed at dusk on a large server from sending a chat packet
+ * to every player for every sleeper.
+ */
+public final class SleepNotificationAggregator {
+
+    // Names of the players who entered or left their beds in the current window, by UUID
+    private static final Map<UUID, String> entered = new LinkedHashMap<>();
+    private static final Map<UUID, String> left = new LinkedHashMap<>();
+    private static int ticksRemaining;
+
+    private SleepNotificationAggregator() {}
+
+    /**
+     * Announces that a player entered their bed, either immediately or at the end of the current
+     * window.
+     *
+     * @param player  the player who started sleeping
+     */
+    public static void onEnterBed(ServerPlayerWrapper player) {
+        if (SERVER_CONFIG.messageCoalesceTicks.get() == 0) {
+            HourglassMessages.sendEnterBedMessage(player);
+        } else if (left.remove(player.get().getUUID()) == null) {
+            startWindow();
+            entered.put(player.get().getUUID(), player.get().getGameProfile().getName());
+        }
+    }
+
+    /**
+     * Announces that a player left their bed, either immediately or at the end of the current
+     * window.
+     *
+     * @param player  the player who left their bed
+     */
+    public static void onLeaveBed(ServerPlayerWrapper player) {
+        if (SERVER_CONFIG.messageCoalesceTicks.get() == 0) {
+            HourglassMessages.sendLeaveBedMessage(player);
+        } else if (entered.remove(player.get().getUUID()) == null) {
+            startWindow();
+            left.put(player.get().getUUID(), player.get().getGameProfile().getName());
+        }
+    }
+
+    private static void startWindow() {
+        if (entered.isEmpty() && left.isEmpty()) {
+            ticksRemaining = SERVER_CONFIG.messageCoalesceTicks.get();
+        }
+    }
+
+    /**
+     * Sends the collected messages once the current window has ended.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && (!entered.isEmpty() || !left.isEmpty())
+                && --ticksRemaining <= 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Discards pending messages when morning wakes up all players.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onSleepFinished(SleepFinishedTimeEvent event) {
+        clear();
+    }
+
+    /**
+     * Discards pending messages when the server stops.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        clear();
+    }
+
+    /** Sends all collected messages immediately. */
+    public static void flush() {
+        TimeService service = TimeServiceManager.service;
+        if (service != null) {
+            int sleepingPlayers = service.sleepStatus.amountSleeping();
+            if (entered.size() == 1) {
+                HourglassMessages.sendEnterBedMessage(service.level,
+                        entered.values().iterator().next(), sleepingPlayers);
+            } else if (entered.size() > 1) {
+                HourglassMessages.sendEnterBedSummary(service.level, entered.size());
+            }
+
+            if (left.size() == 1) {
+                HourglassMessages.sendLeaveBedMessage(service.level,
+                        left.values().iterator().next(), sleepingPlayers);
+            } else if (left.size() > 1) {
+                HourglassMessages.sendLeaveBedSummary(service.level, left.size());
+            }
+        }
+        clear();
+    }
+
+    private static void clear() {
+        entered.clear();
+        left.clear();
+        ticksRemaining = 0;
+    }
+
+}
@@ -19,38 +19,46 @@
 
 package net.lavabucket.hourglass.message;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
-import org.apache.logging.log4j.core.lookup.MapLookup;
-import org.apache.logging.log4j.core.lookup.StrSubstitutor;
-
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry.Category;
 import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
 import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
 import net.lavabucket.hourglass.wrappers.TextWrapper;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket;
 
 /**
  * Message builder for Hourglass notifications, which allow for customizable targets and variable
  * substitution.
+ *
+ * <p>The template is compiled into a {@link CompiledTemplate} when it is set, and is only compiled
+ * again if it changes. Instances can be reused for every message of one kind: {@link #bake()} only
+ * renders the template again, and only creates a new text component, if a variable changed since
+ * the last bake.
  */
 public class TemplateMessage {
 
-    /** A variable map used for variable string substitution. */
-    public HashMap<String, String> variables;
-    /** The {@code StrSubstitutor} object used to perform variable string substitution. */
-    public StrSubstitutor substitutor;
+    private static final CompiledTemplate EMPTY = CompiledTemplate.compile("");
 
+    private final StringBuilder builder = new StringBuilder();
     private boolean overlay;
     private TextWrapper message;
-    private String template;
+    private CompiledTemplate template;
+    private String[] strings;
+    private long[] numbers;
+    private boolean[] isNumber;
+    private boolean changed;
 
     /** Instantiates a new message builder. */
     public TemplateMessage() {
-        variables = new HashMap<>();
-        substitutor = new StrSubstitutor();
-        template = "";
+        setCompiledTemplate(EMPTY);
     }
 
     /** {@return true if this message is an overlay message, false otherwise} */
@@ -71,20 +79,31 @@ public class TemplateMessage {
 
     /** {@return the message template} */
     public String getTemplate() {
-        return template;
+        return template.getTemplate();
     }
 
     /**
-     * Sets the template of this message to use when baking the message.
+     * Sets the template of this message to use when baking the message. The template is only
+     * compiled if it differs from the current template, in which case all variables are cleared.
      *
      * @param template  the message template
      * @return this, for chaining
      */
     public TemplateMessage setTemplate(String template) {
-        this.template = template;
+        if (!template.equals(this.template.getTemplate())) {
+            setCompiledTemplate(CompiledTemplate.compile(template));
+        }
         return this;
     }
 
+    private void setCompiledTemplate(CompiledTemplate template) {
+        this.template = template;
+        this.strings = new String[template.getSlotCount()];
+        this.numbers = new long[template.getSlotCount()];
+        this.isNumber = new boolean[template.getSlotCount()];
+        this.changed = true;
+    }
+
     /**
      * Sets a variable to be substituted in the template message.
      *
@@ -93,7 +112,40 @@ public class TemplateMessage {
      * @return this, for chaining
      */
     public TemplateMessage setVariable(String key, String value) {
-        this.variables.put(key, value);
+        int slot = template.getSlot(key);
+        if (slot >= 0 && (isNumber[slot] || !Objects.equals(strings[slot], value))) {
+            strings[slot] = value;
+            isNumber[slot] = false;
+            changed = true;
+        }
+        return this;
+    }
+
+    /**
+     * Sets a numeric variable to be substituted in the template message.
+     *
+     * @param key  the variable name to search for in the template
+     * @param value  the value to substitute the variable with
+     * @return this, for chaining
+     */
+    public TemplateMessage setVariable(String key, long value) {
+        int slot = template.getSlot(key);
+        if (slot >= 0 && (!isNumber[slot] || numbers[slot] != value)) {
+            numbers[slot] = value;
+            isNumber[slot] = true;
+            changed = true;
+        }
+        return this;
+    }
+
+    /**
+     * Clears all variables, so that they are substituted with their defaults.
+     * @return this, for chaining
+     */
+    public TemplateMessage clearVariables() {
+        Arrays.fill(strings, null);
+        Arrays.fill(isNumber, false);
+        changed = true;
         return this;
     }
 
@@ -107,8 +159,12 @@ public class TemplateMessage {
      * @return this, for chaining
      */
     public TemplateMessage bake() {
-        this.substitutor.setVariableResolver(new MapLookup(this.variables));
-        this.message = TextWrapper.literal(this.substitutor.replace(this.template));
+        if (changed || message == null) {
+            builder.setLength(0);
+            template.render(builder, strings, numbers, isNumber);
+            this.message = TextWrapper.literal(builder.toString());
+            changed = false;
+        }
         return this;
     }
 
@@ -134,8 +190,13 @@ public class TemplateMessage {
             throw new IllegalArgumentException("Level must be specified unless target is MessageTarget.ALL.");
         }
 
+        List<ServerPlayerWrapper> players;
         if (target == MessageTarget.ALL) {
-            level.get().getServer().getPlayerList().broadcastSystemMessage(this.message.get(), overlay);
+            // Log the message to the console like a vanilla broadcast would
+            level.get().getServer().sendSystemMessage(this.message.get());
+            players = level.get().getServer().getPlayerList().getPlayers().stream()
+                    .map(player -> new ServerPlayerWrapper(player))
+                    .toList();
         } else {
             Stream<ServerPlayerWrapper> playerStream = level.get().players().stream()
                     .map(player -> new ServerPlayerWrapper(player));
@@ -144,8 +205,15 @@ public class TemplateMessage {
                 playerStream = playerStream.filter(ServerPlayerWrapper::isSleeping);
             }
 
-            playerStream.forEach(player -> player.get().sendSystemMessage(this.message.get(), overlay));
+            players = playerStream.toList();
         }
+
+        List<ServerPlayerWrapper> recipients = players.stream()
+                .filter(player -> player.acceptsSystemMessages(overlay))
+                .toList();
+        Packet<?> packet = new ClientboundSystemChatPacket(this.message.get(), overlay);
+        MessageDelivery.deliver(packet, recipients);
+        NetworkTelemetry.record(Category.CHAT_MESSAGE, recipients, packet);
     }
 
     /** Target destination of a template message. */
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing metric. Increments are lock-free and scale well under contention,
+ * so they are safe to perform from the server thread every tick.
+ */
+public class Counter implements Metric {
+
+    private final LongAdder value = new LongAdder();
+    private final double scale;
+
+    /**
+     * Creates a new instance.
+     * @param scale  the factor applied to the raw count when it is exported, e.g. {@code 1e-9}
+     *     for a counter of nanoseconds that is exported in seconds
+     */
+    Counter(double scale) {
+        this.scale = scale;
+    }
+
+    /** Increments this counter by one. */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Increments this counter by {@code amount}.
+     * @param amount  the amount to add, which must not be negative
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /** {@return the raw, unscaled count} */
+    public long getCount() {
+        return value.sum();
+    }
+
+    @Override
+    public double getValue() {
+        return value.sum() * scale;
+    }
+
+}
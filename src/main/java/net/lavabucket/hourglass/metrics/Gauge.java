@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** A metric whose value can go up and down. Updates are lock-free. */
+public class Gauge implements Metric {
+
+    private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    /** Creates a new instance with a value of zero. */
+    Gauge() {}
+
+    /**
+     * Sets the value of this gauge.
+     * @param value  the new value
+     */
+    public void set(double value) {
+        bits.lazySet(Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double getValue() {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+}
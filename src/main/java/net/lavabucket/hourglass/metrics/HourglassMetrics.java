@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.metrics;
+
+import net.lavabucket.hourglass.registry.TimeEffects;
+import net.lavabucket.hourglass.time.effects.TimeEffect;
+
+/**
+ * The metrics reported by Hourglass.
+ *
+ * <p>Metrics are only updated while {@link #isEnabled()} returns true, which is the case while
+ * {@link MetricsExporter} is running.
+ */
+public final class HourglassMetrics {
+
+    /** The registry containing every Hourglass metric. */
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    /** The speed at which time elapsed during the last tick. */
+    public static final Gauge TIME_SPEED = REGISTRY.gauge("hourglass_time_speed",
+            "The speed at which time elapsed during the last tick, where 1 is vanilla speed.");
+    /** The number of sleeping players during the last tick. */
+    public static final Gauge SLEEPING_PLAYERS = REGISTRY.gauge("hourglass_sleeping_players",
+            "The number of players sleeping in the Overworld.");
+    /** The number of active players during the last tick. */
+    public static final Gauge ACTIVE_PLAYERS = REGISTRY.gauge("hourglass_active_players",
+            "The number of players in the Overworld that count towards the sleeping percentage.");
+    /** The number of ticks performed. */
+    public static final Counter TICKS = REGISTRY.counter("hourglass_ticks",
+            "Time ticks performed by Hourglass.");
+    /** The time spent performing ticks. */
+    public static final Counter TICK_SECONDS = REGISTRY.durationCounter("hourglass_tick_seconds",
+            "Time spent by Hourglass on the server thread performing time ticks.");
+    /** The number of time packets sent. */
+    public static final Counter TIME_PACKETS = REGISTRY.counter("hourglass_time_packets",
+            "Time update packets sent to players by Hourglass.");
+
+    private static final String EFFECT_LABEL = "effect";
+
+    private static volatile boolean enabled;
+
+    private HourglassMetrics() {}
+
+    /** {@return true if metrics should be updated} */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether metrics should be updated.
+     * @param enabled  true if metrics should be updated
+     */
+    static void setEnabled(boolean enabled) {
+        HourglassMetrics.enabled = enabled;
+    }
+
+    /**
+     * Records a single application of a time effect.
+     *
+     * @param effect  the time effect that was applied
+     * @param extraTicks  the number of extra ticks the effect simulated
+     * @param nanos  the time spent applying the effect, in nanoseconds
+     */
+    public static void recordTimeEffect(TimeEffect effect, long extraTicks, long nanos) {
+        String key = String.valueOf(TimeEffects.REGISTRY.get().getKey(effect));
+        REGISTRY.counter("hourglass_effect_extra_ticks",
+                "Extra ticks simulated by each time effect.", EFFECT_LABEL, key).add(extraTicks);
+        REGISTRY.durationCounter("hourglass_effect_seconds",
+                "Time spent applying each time effect.", EFFECT_LABEL, key).add(nanos);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.metrics;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+/**
+ * Exports {@link HourglassMetrics} in the OpenMetrics text format, either by periodically writing
+ * them to a file or by serving them from an HTTP endpoint on the loopback address.
+ *
+ * <p>All exporting happens on a single background thread. The server thread only updates the
+ * lock-free metrics themselves, so exporting never blocks it.
+ */
+public class MetricsExporter {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static ScheduledExecutorService executor;
+    private static HttpServer httpServer;
+
+    /**
+     * Starts the exporter if metrics are enabled in the server config.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        if (!SERVER_CONFIG.enableMetrics.get()) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("Hourglass Metrics Exporter")
+                .setDaemon(true)
+                .build());
+
+        String file = SERVER_CONFIG.metricsFile.get();
+        if (!file.isBlank()) {
+            Path path = FMLPaths.GAMEDIR.get().resolve(file).toAbsolutePath();
+            long interval = SERVER_CONFIG.metricsInterval.get();
+            executor.scheduleWithFixedDelay(() -> writeFile(path), interval, interval,
+                    TimeUnit.SECONDS);
+            LOGGER.info(MARKER, "Writing metrics to {} every {} seconds.", path, interval);
+        }
+
+        int port = SERVER_CONFIG.metricsPort.get();
+        if (port > 0) {
+            try {
+                InetSocketAddress address =
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+                httpServer = HttpServer.create(address, 0);
+                httpServer.createContext("/metrics", MetricsExporter::handleRequest);
+                httpServer.setExecutor(executor);
+                httpServer.start();
+                LOGGER.info(MARKER, "Serving metrics at http://{}:{}/metrics.",
+                        address.getHostString(), port);
+            } catch (IOException e) {
+                httpServer = null;
+                LOGGER.error(MARKER, "Failed to start metrics endpoint on port {}.", port, e);
+            }
+        }
+
+        HourglassMetrics.setEnabled(true);
+    }
+
+    /**
+     * Stops the exporter, writing the metrics file one last time.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        if (executor == null) {
+            return;
+        }
+
+        HourglassMetrics.setEnabled(false);
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+
+        String file = SERVER_CONFIG.metricsFile.get();
+        if (!file.isBlank()) {
+            Path path = FMLPaths.GAMEDIR.get().resolve(file).toAbsolutePath();
+            executor.execute(() -> writeFile(path));
+        }
+        executor.shutdown();
+        executor = null;
+    }
+
+    /** {@return the current metrics in the OpenMetrics text format} */
+    public static byte[] export() {
+        StringBuilder builder = new StringBuilder(2048);
+        HourglassMetrics.REGISTRY.write(builder);
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the current metrics to {@code path}. The file is written to a temporary file first
+     * and then moved into place, so scrapers never observe a partially written file.
+     */
+    private static void writeFile(Path path) {
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, export());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn(MARKER, "Failed to write metrics to {}.", path, e);
+        }
+    }
+
+    /** Serves the current metrics in response to an HTTP request. */
+    private static void handleRequest(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = export();
+            exchange.getResponseHeaders().set("Content-Type", MetricsRegistry.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * A collection of named metrics that can be written in the OpenMetrics text format.
+ *
+ * <p>Metrics are grouped into families that share a name, type and description. A family holds
+ * either a single unlabeled metric or one metric per value of its label. Looking up a metric is
+ * lock-free, so metrics may be fetched from the registry each time they are updated.
+ */
+public class MetricsRegistry {
+
+    /** The content type of the text produced by {@link #write(StringBuilder)}. */
+    public static final String CONTENT_TYPE =
+            "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the unlabeled counter named {@code name}, creating it if needed.
+     *
+     * @param name  the name of the metric, without the {@code _total} suffix
+     * @param help  a description of the metric
+     * @return the counter
+     */
+    public Counter counter(String name, String help) {
+        return counter(name, help, null, null);
+    }
+
+    /**
+     * Returns the counter named {@code name} for the label {@code label} with value
+     * {@code labelValue}, creating it if needed.
+     *
+     * @param name  the name of the metric, without the {@code _total} suffix
+     * @param help  a description of the metric
+     * @param label  the name of the label
+     * @param labelValue  the value of the label
+     * @return the counter
+     */
+    public Counter counter(String name, String help, String label, String labelValue) {
+        return family(name, help, Type.COUNTER, null, label).get(labelValue, () -> new Counter(1));
+    }
+
+    /**
+     * Returns the unlabeled duration counter named {@code name}, creating it if needed. Durations
+     * are added in nanoseconds and exported in seconds.
+     *
+     * @param name  the name of the metric, which should end in {@code _seconds}
+     * @param help  a description of the metric
+     * @return the counter
+     */
+    public Counter durationCounter(String name, String help) {
+        return durationCounter(name, help, null, null);
+    }
+
+    /**
+     * Returns the duration counter named {@code name} for the label {@code label} with value
+     * {@code labelValue}, creating it if needed. Durations are added in nanoseconds and exported
+     * in seconds.
+     *
+     * @param name  the name of the metric, which should end in {@code _seconds}
+     * @param help  a description of the metric
+     * @param label  the name of the label
+     * @param labelValue  the value of the label
+     * @return the counter
+     */
+    public Counter durationCounter(String name, String help, String label, String labelValue) {
+        return family(name, help, Type.COUNTER, "seconds", label)
+                .get(labelValue, () -> new Counter(1e-9));
+    }
+
+    /**
+     * Returns the unlabeled gauge named {@code name}, creating it if needed.
+     *
+     * @param name  the name of the metric
+     * @param help  a description of the metric
+     * @return the gauge
+     */
+    public Gauge gauge(String name, String help) {
+        return family(name, help, Type.GAUGE, null, null).get(null, Gauge::new);
+    }
+
+    /**
+     * Writes every metric in this registry to {@code out} in the OpenMetrics text format.
+     * @param out  the builder to write to
+     */
+    public void write(StringBuilder out) {
+        families.values().forEach(family -> family.write(out));
+        out.append("# EOF\n");
+    }
+
+    private Family family(String name, String help, Type type, String unit, String label) {
+        Family family = families.computeIfAbsent(name,
+                key -> new Family(name, help, type, unit, label));
+        if (family.type != type || !String.valueOf(family.label).equals(String.valueOf(label))) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered with a "
+                    + "different type or label.");
+        }
+        return family;
+    }
+
+    private enum Type {
+        COUNTER("counter", "_total"),
+        GAUGE("gauge", "");
+
+        private final String name;
+        private final String suffix;
+
+        private Type(String name, String suffix) {
+            this.name = name;
+            this.suffix = suffix;
+        }
+    }
+
+    /** A group of metrics that share a name. */
+    private static class Family {
+
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final String unit;
+        private final String label;
+        private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+        private Family(String name, String help, Type type, String unit, String label) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.unit = unit;
+            this.label = label;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends Metric> T get(String labelValue, Supplier<T> factory) {
+            String key = labelValue == null ? "" : labelValue;
+            Metric metric = metrics.get(key);
+            if (metric == null) {
+                metric = metrics.computeIfAbsent(key, k -> factory.get());
+            }
+            return (T) metric;
+        }
+
+        private void write(StringBuilder out) {
+            out.append("# TYPE ").append(name).append(' ').append(type.name).append('\n');
+            if (unit != null) {
+                out.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+            }
+            out.append("# HELP ").append(name).append(' ');
+            escape(help, out);
+            out.append('\n');
+
+            new ConcurrentSkipListMap<>(metrics).forEach((labelValue, metric) -> {
+                out.append(name).append(type.suffix);
+                if (label != null) {
+                    out.append('{').append(label).append("=\"");
+                    escape(labelValue, out);
+                    out.append("\"}");
+                }
+                out.append(' ').append(format(metric.getValue())).append('\n');
+            });
+        }
+
+        private static String format(double value) {
+            if (value == Math.rint(value) && !Double.isInfinite(value)
+                    && Math.abs(value) < 1e15) {
+                return Long.toString((long) value);
+            }
+            return Double.toString(value);
+        }
+
+        private static void escape(String value, StringBuilder out) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> out.append("\\\\");
+                    case '"' -> out.append("\\\"");
+                    case '\n' -> out.append("\\n");
+                    default -> out.append(c);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.metrics;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.buffer.Unpooled;
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Counts the packets sent by Hourglass and the bytes they contain, by category and by player.
+ *
+ * <p>Recording is enabled by the {@code enableNetworkTelemetry} config option. Totals are kept in
+ * {@link HourglassMetrics#REGISTRY}, so they are also exported when metrics are enabled. Rates are
+ * computed over a sliding window of {@link #RATE_WINDOW} seconds, sampled from the server tick.
+ *
+ * <p>Byte counts are the encoded size of each packet body plus its id, before compression and
+ * framing, so they slightly underestimate the traffic on the wire.
+ */
+public class NetworkTelemetry {
+
+    /** The number of seconds over which rates are computed. */
+    public static final int RATE_WINDOW = 10;
+
+    private static final int TICKS_PER_SAMPLE = 20;
+    private static final String CATEGORY_LABEL = "category";
+
+    private static final Map<Category, Traffic> CATEGORIES = new EnumMap<>(Category.class);
+    private static final Map<UUID, PlayerTraffic> PLAYERS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<FriendlyByteBuf> BUFFER =
+            ThreadLocal.withInitial(() -> new FriendlyByteBuf(Unpooled.buffer()));
+
+    private static final long[] sampleTimes = new long[RATE_WINDOW + 1];
+    private static int sampleCount;
+    private static int tickCount;
+
+    static {
+        for (Category category : Category.values()) {
+            CATEGORIES.put(category, new Traffic(category));
+        }
+    }
+
+    private NetworkTelemetry() {}
+
+    /** {@return true if network traffic is being recorded} */
+    public static boolean isEnabled() {
+        return SERVER_CONFIG.enableNetworkTelemetry.get();
+    }
+
+    /**
+     * Records a packet sent to a single player.
+     *
+     * @param category  the category of the packet
+     * @param player  the player the packet was sent to
+     * @param packet  the packet that was sent
+     */
+    public static void record(Category category, ServerPlayerWrapper player, Packet<?> packet) {
+        if (isEnabled()) {
+            record(category, player, measure(packet));
+        }
+    }
+
+    /**
+     * Records a packet sent to each player in {@code players}. The packet is only measured once.
+     *
+     * @param category  the category of the packet
+     * @param players  the players the packet was sent to
+     * @param packet  the packet that was sent
+     */
+    public static void record(Category category, Collection<ServerPlayerWrapper> players,
+            Packet<?> packet) {
+        if (isEnabled() && !players.isEmpty()) {
+            int bytes = measure(packet);
+            players.forEach(player -> record(category, player, bytes));
+        }
+    }
+
+    /**
+     * Records a packet of {@code bytes} bytes sent to a single player.
+     *
+     * @param category  the category of the packet
+     * @param player  the player the packet was sent to
+     * @param bytes  the size of the packet
+     */
+    public static void record(Category category, ServerPlayerWrapper player, int bytes) {
+        CATEGORIES.get(category).add(bytes);
+        PLAYERS.computeIfAbsent(player.get().getUUID(),
+                uuid -> new PlayerTraffic(player.get().getGameProfile().getName())).add(bytes);
+    }
+
+    /** {@return the traffic of every category} */
+    public static Collection<Traffic> getTraffic() {
+        return CATEGORIES.values();
+    }
+
+    /** {@return the traffic of every player who has been sent a packet, by player name} */
+    public static Map<String, PlayerTraffic> getPlayerTraffic() {
+        Map<String, PlayerTraffic> players = new TreeMap<>();
+        PLAYERS.values().forEach(traffic -> players.put(traffic.name, traffic));
+        return players;
+    }
+
+    /**
+     * Samples the totals of every category once per second to compute rates.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || ++tickCount < TICKS_PER_SAMPLE) {
+            return;
+        }
+        tickCount = 0;
+
+        int index = sampleCount++ % sampleTimes.length;
+        sampleTimes[index] = System.nanoTime();
+        CATEGORIES.values().forEach(traffic -> traffic.sample(index));
+    }
+
+    /**
+     * Discards the traffic of a player who left the server.
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        PLAYERS.remove(event.getEntity().getUUID());
+    }
+
+    /**
+     * Measures the encoded size of {@code packet}. Every clientbound play packet id fits in a
+     * single byte.
+     */
+    private static int measure(Packet<?> packet) {
+        FriendlyByteBuf buffer = BUFFER.get();
+        buffer.clear();
+        packet.write(buffer);
+        return buffer.readableBytes() + 1;
+    }
+
+    /** {@return the index of the oldest sample in the rate window, or -1 if there is none} */
+    private static int oldestSample() {
+        if (sampleCount == 0) {
+            return -1;
+        }
+        return sampleCount <= sampleTimes.length ? 0 : sampleCount % sampleTimes.length;
+    }
+
+    /** The network channel a packet is sent on. */
+    public enum Channel {
+        /** Vanilla packets sent by Hourglass. */
+        VANILLA,
+        /** Packets on channels owned by Hourglass or sent only because of Hourglass. */
+        HOURGLASS;
+    }
+
+    /** The kind of data contained in a packet. */
+    public enum Category {
+        /** Time updates sent by {@code TimeService.broadcastTime()}. */
+        TIME(Channel.VANILLA),
+        /** Mob effect updates sent by the potion time effect. */
+        MOB_EFFECT(Channel.VANILLA),
+        /** Sleep messages sent by {@code TemplateMessage}. */
+        CHAT_MESSAGE(Channel.VANILLA),
+        /** Server config synchronization. */
+        CONFIG(Channel.HOURGLASS),
+        /** Morning estimates sent to sleeping players by {@code MorningEtaSynchronizer}. */
+        MORNING_ETA(Channel.HOURGLASS);
+
+        private final Channel channel;
+
+        private Category(Channel channel) {
+            this.channel = channel;
+        }
+
+        /** {@return the channel that packets of this category are sent on} */
+        public Channel getChannel() {
+            return channel;
+        }
+
+        /** {@return the name of this category as used in metric labels} */
+        public String getLabel() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** The traffic of a single category. */
+    public static class Traffic {
+
+        private final Category category;
+        private final Counter packets;
+        private final Counter bytes;
+        private final long[] packetSamples = new long[RATE_WINDOW + 1];
+        private final long[] byteSamples = new long[RATE_WINDOW + 1];
+
+        private Traffic(Category category) {
+            this.category = category;
+            this.packets = HourglassMetrics.REGISTRY.counter("hourglass_network_packets",
+                    "Packets sent by Hourglass.", CATEGORY_LABEL, category.getLabel());
+            this.bytes = HourglassMetrics.REGISTRY.counter("hourglass_network_bytes",
+                    "Bytes sent by Hourglass, before compression.", CATEGORY_LABEL,
+                    category.getLabel());
+        }
+
+        private void add(int size) {
+            packets.increment();
+            bytes.add(size);
+        }
+
+        private void sample(int index) {
+            packetSamples[index] = packets.getCount();
+            byteSamples[index] = bytes.getCount();
+        }
+
+        /** {@return the category of this traffic} */
+        public Category getCategory() {
+            return category;
+        }
+
+        /** {@return the total number of packets sent} */
+        public long getPackets() {
+            return packets.getCount();
+        }
+
+        /** {@return the total number of bytes sent} */
+        public long getBytes() {
+            return bytes.getCount();
+        }
+
+        /** {@return the average number of packets sent per second over the rate window} */
+        public double getPacketRate() {
+            return rate(packetSamples, getPackets());
+        }
+
+        /** {@return the average number of bytes sent per second over the rate window} */
+        public double getByteRate() {
+            return rate(byteSamples, getBytes());
+        }
+
+        private static double rate(long[] samples, long current) {
+            int oldest = oldestSample();
+            if (oldest < 0) {
+                return 0;
+            }
+            double seconds = (System.nanoTime() - sampleTimes[oldest]) / 1e9;
+            return seconds > 0 ? (current - samples[oldest]) / seconds : 0;
+        }
+
+    }
+
+    /** The traffic sent to a single player. */
+    public static class PlayerTraffic {
+
+        private final LongAdder packets = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final String name;
+
+        private PlayerTraffic(String name) {
+            this.name = name;
+        }
+
+        private void add(int size) {
+            packets.increment();
+            bytes.add(size);
+        }
+
+        /** {@return the total number of packets sent to the player} */
+        public long getPackets() {
+            return packets.sum();
+        }
+
+        /** {@return the total number of bytes sent to the player} */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.network;
+
+import java.util.function.BiConsumer;
+
+import io.netty.buffer.Unpooled;
+import net.lavabucket.hourglass.Hourglass;
+import net.lavabucket.hourglass.config.ConfigResyncRequestPacket;
+import net.lavabucket.hourglass.config.ConfigSyncPacket;
+import net.lavabucket.hourglass.time.MorningEtaPacket;
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.network.ChannelBuilder;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.SimpleChannel;
+
+/**
+ * The Hourglass network channel and its packets.
+ *
+ * <p>The channel is optional on both sides, so players without Hourglass can still join a server
+ * with Hourglass, and vice versa. Senders must check {@link #hasChannel(ServerPlayerWrapper)}
+ * before sending a packet to a player, so that packets are only sent to players with Hourglass.
+ */
+public final class HourglassNetwork {
+
+    /** The version of the Hourglass network protocol. */
+    public static final int PROTOCOL_VERSION = 1;
+
+    /** The name of the Hourglass network channel. */
+    public static final ResourceLocation CHANNEL_NAME = new ResourceLocation(Hourglass.MOD_ID, "main");
+
+    /** The Hourglass network channel. */
+    public static final SimpleChannel CHANNEL = ChannelBuilder.named(CHANNEL_NAME)
+            .networkProtocolVersion(PROTOCOL_VERSION)
+            .optional()
+            .simpleChannel();
+
+    private HourglassNetwork() {}
+
+    /** Registers all Hourglass packets. Must be called during mod construction. */
+    public static void register() {
+        CHANNEL.messageBuilder(ConfigSyncPacket.class, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(ConfigSyncPacket::encode)
+                .decoder(ConfigSyncPacket::decode)
+                .consumerMainThread(ConfigSyncPacket::handle)
+                .add();
+
+        CHANNEL.messageBuilder(ConfigResyncRequestPacket.class, NetworkDirection.PLAY_TO_SERVER)
+                .encoder(ConfigResyncRequestPacket::encode)
+                .decoder(ConfigResyncRequestPacket::decode)
+                .consumerMainThread(ConfigResyncRequestPacket::handle)
+                .add();
+
+        CHANNEL.messageBuilder(MorningEtaPacket.class, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(MorningEtaPacket::encode)
+                .decoder(MorningEtaPacket::decode)
+                .consumerMainThread(MorningEtaPacket::handle)
+                .add();
+    }
+
+    /**
+     * {@return true if the client of {@code player} has the Hourglass channel}
+     * @param player  the player to check
+     */
+    public static boolean hasChannel(ServerPlayerWrapper player) {
+        return CHANNEL.isRemotePresent(player.get().connection.getConnection());
+    }
+
+    /**
+     * Returns the approximate size of a packet of this channel on the wire, including the channel
+     * name.
+     *
+     * @param <T>  the type of the packet
+     * @param packet  the packet to measure
+     * @param encoder  the encoder the packet is registered with
+     * @return the size of {@code packet} in bytes
+     */
+    public static <T> int measure(T packet, BiConsumer<T, FriendlyByteBuf> encoder) {
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            encoder.accept(packet, buffer);
+            // Channel name prefixed by its length, plus the packet ids
+            return buffer.readableBytes() + CHANNEL_NAME.toString().length() + 3;
+        } finally {
+            buffer.release();
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size window of the most recent duration samples, from which percentiles can be computed.
+ *
+ * <p>Recording a sample is lock-free and allocation-free, so it is safe to call from the server
+ * thread every tick. The window is intended for a single writer; readers on other threads may
+ * observe a window that is one sample behind.
+ */
+public class RollingHistogram {
+
+    /** The default number of samples kept by a histogram. Must be a power of two. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count;
+    private final int mask;
+
+    /** Creates a new instance holding {@link #DEFAULT_CAPACITY} samples. */
+    public RollingHistogram() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param capacity  the number of samples to keep, which must be a power of two
+     */
+    public RollingHistogram(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.count = new AtomicLong();
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Records a sample, replacing the oldest one if the window is full.
+     * @param value  the sample to record, usually a duration in nanoseconds
+     */
+    public void record(long value) {
+        long index = count.getAndIncrement();
+        samples.lazySet((int) (index & mask), value);
+    }
+
+    /** Discards all recorded samples. */
+    public void reset() {
+        count.set(0);
+    }
+
+    /** {@return the total number of samples recorded since the last reset} */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Computes a summary of the samples currently in the window. This method allocates and sorts
+     * a copy of the window, so it should not be called every tick.
+     *
+     * @return the summary, or a summary of zeroes if no samples have been recorded
+     */
+    public Summary summarize() {
+        long total = count.get();
+        int size = (int) Math.min(total, samples.length());
+        if (size == 0) {
+            return new Summary(0, 0, 0, 0);
+        }
+
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+
+        return new Summary(total, percentile(copy, 0.5), percentile(copy, 0.99), copy[size - 1]);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * A summary of the samples in a histogram window.
+     *
+     * @param count  the total number of samples recorded since the last reset
+     * @param p50  the median sample in the window
+     * @param p99  the 99th percentile sample in the window
+     * @param max  the largest sample in the window
+     */
+    public record Summary(long count, long p50, long p99, long max) {}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.lavabucket.hourglass.registry.TimeEffects;
+import net.lavabucket.hourglass.time.TimeService;
+import net.lavabucket.hourglass.time.effects.TimeEffect;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Measures how long each phase of a {@link TimeService} tick takes.
+ *
+ * <p>Phases are timed by passing the timestamp returned by the previous call to
+ * {@link #record(String, long)} into the next one. While the profiler is stopped, {@link #begin()}
+ * returns 0 and every record call returns immediately, so instrumented code costs only a field
+ * read.
+ */
+public class TickProfiler {
+
+    /** Phase covering the time calculations of a tick. */
+    public static final String TIME_PHASE = "time";
+    /** Phase covering the time triggers run during a tick. */
+    public static final String TRIGGER_PHASE = "triggers";
+    /** Phase covering morning handling. */
+    public static final String MORNING_PHASE = "morning";
+    /** Phase covering the time broadcast to clients. */
+    public static final String BROADCAST_PHASE = "broadcast";
+    /** Phase covering an instant night skip. */
+    public static final String SKIP_PHASE = "skip";
+    /** Phase covering the scheduling of planned time effects. */
+    public static final String PLANNING_PHASE = "planning";
+    /** Phase covering the entire tick. */
+    public static final String TOTAL_PHASE = "total";
+    /** Prefix of the phases covering individual time effects. */
+    public static final String EFFECT_PHASE_PREFIX = "effect/";
+
+    private final Map<String, RollingHistogram> phases;
+    private final Map<TimeEffect, RollingHistogram> effectPhases;
+    private volatile boolean enabled;
+
+    /** Creates a new, stopped instance. */
+    public TickProfiler() {
+        this.phases = new ConcurrentHashMap<>();
+        this.effectPhases = new IdentityHashMap<>();
+    }
+
+    /** Discards all samples and starts profiling. */
+    public void start() {
+        phases.values().forEach(RollingHistogram::reset);
+        enabled = true;
+    }
+
+    /** Stops profiling. Samples are kept until the profiler is started again. */
+    public void stop() {
+        enabled = false;
+    }
+
+    /** {@return true if the profiler is currently recording samples} */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** {@return the current timestamp if profiling, or 0 otherwise} */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since {@code since} to {@code phase}.
+     *
+     * @param phase  the name of the phase
+     * @param since  the timestamp at which the phase started
+     * @return the current timestamp if profiling, or 0 otherwise
+     */
+    public long record(String phase, long since) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        phases.computeIfAbsent(phase, key -> new RollingHistogram()).record(now - since);
+        return now;
+    }
+
+    /**
+     * Records the time elapsed since {@code since} to the phase of {@code effect}. Must be called
+     * on the server thread.
+     *
+     * @param effect  the effect that was applied
+     * @param since  the timestamp at which the effect started
+     * @return the current timestamp if profiling, or 0 otherwise
+     */
+    public long record(TimeEffect effect, long since) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        effectPhases.computeIfAbsent(effect, this::createEffectPhase).record(now - since);
+        return now;
+    }
+
+    /** {@return a summary of every phase, sorted by phase name} */
+    public SortedMap<String, RollingHistogram.Summary> report() {
+        SortedMap<String, RollingHistogram.Summary> report = new TreeMap<>();
+        phases.forEach((phase, histogram) -> report.put(phase, histogram.summarize()));
+        return report;
+    }
+
+    private RollingHistogram createEffectPhase(TimeEffect effect) {
+        ResourceLocation key = TimeEffects.REGISTRY.get().getKey(effect);
+        String name = EFFECT_PHASE_PREFIX + (key != null ? key : effect.getClass().getSimpleName());
+        return phases.computeIfAbsent(name, phase -> new RollingHistogram());
+    }
+
+}
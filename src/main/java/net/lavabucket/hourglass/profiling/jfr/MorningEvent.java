@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event covering the handling of morning after a sleep cycle. */
+@Name(MorningEvent.NAME)
+@Label("Morning")
+@Category("Hourglass")
+@Description("Hourglass waking players up and finishing a sleep cycle.")
+@StackTrace(false)
+public class MorningEvent extends Event {
+
+    /** The name of this event type. */
+    public static final String NAME = "hourglass.Morning";
+
+    /** The number of players who were sleeping. */
+    @Label("Sleeping Players")
+    public int sleepingPlayers;
+
+}
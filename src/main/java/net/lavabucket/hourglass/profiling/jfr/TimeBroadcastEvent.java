@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event covering the broadcast of the current time to clients. */
+@Name(TimeBroadcastEvent.NAME)
+@Label("Time Broadcast")
+@Category("Hourglass")
+@Description("Hourglass sending the current time to every player who observes it.")
+@StackTrace(false)
+public class TimeBroadcastEvent extends Event {
+
+    /** The name of this event type. */
+    public static final String NAME = "hourglass.TimeBroadcast";
+
+    /** The number of players the time was sent to. */
+    @Label("Recipients")
+    public int recipients;
+
+}
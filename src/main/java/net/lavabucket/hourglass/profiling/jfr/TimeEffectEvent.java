@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event covering the application of a single time effect. */
+@Name(TimeEffectEvent.NAME)
+@Label("Time Effect")
+@Category("Hourglass")
+@Description("The application of a single Hourglass time effect during a time tick.")
+@StackTrace(false)
+public class TimeEffectEvent extends Event {
+
+    /** The name of this event type. */
+    public static final String NAME = "hourglass.TimeEffect";
+
+    /** The registry name of the time effect. */
+    @Label("Effect")
+    public String effect;
+
+    /** The time that elapsed during the tick. */
+    @Label("Time Delta")
+    public double timeDelta;
+
+    /** The number of players, block entity passes or other things affected by the effect. */
+    @Label("Affected Count")
+    public int affectedCount;
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event covering a complete Hourglass time tick. */
+@Name(TimeTickEvent.NAME)
+@Label("Time Tick")
+@Category("Hourglass")
+@Description("A tick of the Hourglass time service, including time effects and the time broadcast.")
+@StackTrace(false)
+public class TimeTickEvent extends Event {
+
+    /** The name of this event type. */
+    public static final String NAME = "hourglass.TimeTick";
+
+    /** The time that elapsed during the tick. */
+    @Label("Time Delta")
+    public double timeDelta;
+
+    /** The number of sleeping players. */
+    @Label("Sleeping Players")
+    public int sleepingPlayers;
+
+    /** The number of active players. */
+    @Label("Active Players")
+    public int activePlayers;
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.trace;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeConfig;
+
+/**
+ * The binary format of a time trace, and a reader for trace files.
+ *
+ * <p>A trace file starts with a {@link #HEADER_SIZE}-byte header followed by a ring of
+ * fixed-size records, one per tick. The header holds the number of records ever written, so the
+ * oldest record in the ring can be found after the ring wraps around. All values are little
+ * endian.
+ */
+public final class TimeTrace {
+
+    /** The magic number at the start of every trace file ("HGTR"). */
+    public static final int MAGIC = 0x48475452;
+    /** The version of the trace format. */
+    public static final int VERSION = 1;
+    /** The size of the file header in bytes. */
+    public static final int HEADER_SIZE = 1024;
+    /** The size of each record in bytes. */
+    public static final int RECORD_SIZE = 192;
+    /** The number of time effects whose extra ticks are recorded. */
+    public static final int MAX_EFFECTS = 8;
+    /** The largest number of bytes in the name of a time effect. */
+    public static final int EFFECT_NAME_SIZE = 64;
+    /** The byte order of trace files. */
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /** Record flag set when the sleep feature was enabled. */
+    public static final int FLAG_SLEEP_FEATURE = 1;
+    /** Record flag set when morning was handled during the tick. */
+    public static final int FLAG_MORNING = 2;
+    /** Record flag set when the night was skipped instantly during the tick. */
+    public static final int FLAG_SKIP = 4;
+
+    // Header layout
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int RECORD_SIZE_OFFSET = 8;
+    static final int CAPACITY_OFFSET = 12;
+    static final int WRITE_INDEX_OFFSET = 16;
+    static final int EFFECT_COUNT_OFFSET = 24;
+    static final int EFFECT_NAMES_OFFSET = 32;
+
+    // Record layout
+    static final int GAME_TIME = 0;
+    static final int DAY_TIME = 8;
+    static final int FRACTION = 16;
+    static final int TIME_DELTA = 24;
+    static final int TICK_SCALE = 32;
+    static final int SLEEPING = 40;
+    static final int ACTIVE = 44;
+    static final int FLAGS = 48;
+    static final int TICK_NANOS = 56;
+    static final int DAY_SPEED = 64;
+    static final int NIGHT_SPEED = 72;
+    static final int SLEEP_SPEED_MIN = 80;
+    static final int SLEEP_SPEED_MAX = 88;
+    static final int SLEEP_SPEED_ALL = 96;
+    static final int SLEEP_SPEED_CURVE = 104;
+    static final int SLEEP_SPEED_CAP = 112;
+    static final int EFFECT_TICKS = 120;
+    static final int TIME_SPEED = 184;
+
+    private TimeTrace() {}
+
+    /** {@return the size of a trace file holding {@code capacity} records} */
+    public static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * RECORD_SIZE;
+    }
+
+    /**
+     * Reads every record in a trace file, oldest first.
+     *
+     * @param path  the path of the trace file
+     * @return the trace
+     * @throws IOException if the file cannot be read or is not a trace file
+     */
+    public static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(BYTE_ORDER);
+
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC
+                    || buffer.getInt(VERSION_OFFSET) != VERSION
+                    || buffer.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE) {
+                throw new IOException("Not a version " + VERSION + " time trace: " + path);
+            }
+
+            int capacity = buffer.getInt(CAPACITY_OFFSET);
+            long writeIndex = buffer.getLong(WRITE_INDEX_OFFSET);
+            List<String> effects = readEffectNames(buffer);
+
+            List<Record> records = new ArrayList<>();
+            for (long i = Math.max(0, writeIndex - capacity); i < writeIndex; i++) {
+                records.add(readRecord(buffer, recordOffset(i, capacity), effects.size()));
+            }
+            return new Contents(effects, records);
+        }
+    }
+
+    /** {@return the offset of the record with index {@code index} in a ring of {@code capacity}} */
+    static int recordOffset(long index, int capacity) {
+        return HEADER_SIZE + (int) (index % capacity) * RECORD_SIZE;
+    }
+
+    /** {@return the names of the time effects in the header of {@code buffer}} */
+    static List<String> readEffectNames(MappedByteBuffer buffer) {
+        int count = Math.min(MAX_EFFECTS, buffer.getInt(EFFECT_COUNT_OFFSET));
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[EFFECT_NAME_SIZE];
+            buffer.get(EFFECT_NAMES_OFFSET + i * EFFECT_NAME_SIZE, bytes);
+            int length = 0;
+            while (length < bytes.length && bytes[length] != 0) {
+                length++;
+            }
+            names.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+
+    private static Record readRecord(MappedByteBuffer buffer, int offset, int effectCount) {
+        long[] effectTicks = new long[effectCount];
+        for (int i = 0; i < effectCount; i++) {
+            effectTicks[i] = buffer.getLong(offset + EFFECT_TICKS + i * Long.BYTES);
+        }
+
+        int flags = buffer.getInt(offset + FLAGS);
+        TimeConfig config = new TimeConfig(
+                buffer.getDouble(offset + DAY_SPEED),
+                buffer.getDouble(offset + NIGHT_SPEED),
+                (flags & FLAG_SLEEP_FEATURE) != 0,
+                buffer.getDouble(offset + SLEEP_SPEED_MIN),
+                buffer.getDouble(offset + SLEEP_SPEED_MAX),
+                buffer.getDouble(offset + SLEEP_SPEED_ALL),
+                buffer.getDouble(offset + SLEEP_SPEED_CURVE),
+                buffer.getDouble(offset + SLEEP_SPEED_CAP));
+
+        return new Record(
+                buffer.getLong(offset + GAME_TIME),
+                new Time(buffer.getLong(offset + DAY_TIME), buffer.getDouble(offset + FRACTION)),
+                buffer.getDouble(offset + TIME_DELTA),
+                buffer.getDouble(offset + TIME_SPEED),
+                buffer.getDouble(offset + TICK_SCALE),
+                buffer.getInt(offset + SLEEPING),
+                buffer.getInt(offset + ACTIVE),
+                flags,
+                buffer.getLong(offset + TICK_NANOS),
+                config,
+                effectTicks);
+    }
+
+    /**
+     * The contents of a trace file.
+     *
+     * @param effects  the names of the time effects, in the order of {@link Record#effectTicks()}
+     * @param records  the records in the file, oldest first
+     */
+    public record Contents(List<String> effects, List<Record> records) {}
+
+    /**
+     * A single traced tick.
+     *
+     * @param gameTime  the game time of the tick
+     * @param dayTime  the day time at the end of the tick
+     * @param timeDelta  the amount of time that elapsed during the tick
+     * @param timeSpeed  the time speed during the tick
+     * @param tickScale  the number of vanilla ticks' worth of time the tick represented
+     * @param sleeping  the number of sleeping players at the start of the tick
+     * @param active  the number of active players at the start of the tick
+     * @param flags  the record flags
+     * @param tickNanos  the time Hourglass spent on the tick, in nanoseconds
+     * @param config  the config used during the tick
+     * @param effectTicks  the extra ticks applied by each time effect
+     */
+    public record Record(long gameTime, Time dayTime, double timeDelta, double timeSpeed,
+            double tickScale, int sleeping, int active, int flags, long tickNanos,
+            TimeConfig config, long[] effectTicks) {
+
+        /** {@return true if {@code flag} is set on this record} */
+        public boolean hasFlag(int flag) {
+            return (flags & flag) != 0;
+        }
+
+    }
+
+}
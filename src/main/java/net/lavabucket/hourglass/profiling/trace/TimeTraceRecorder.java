@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.trace;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+import static net.lavabucket.hourglass.profiling.trace.TimeTrace.*;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.lavabucket.hourglass.registry.TimeEffects;
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeConfig;
+import net.lavabucket.hourglass.time.effects.TimeEffect;
+
+/**
+ * Appends one {@link TimeTrace} record per tick to a memory-mapped ring file.
+ *
+ * <p>Writing a record only stores values into the mapped buffer; the operating system writes the
+ * pages to disk in the background, so recording does not block the server thread on I/O. The ring
+ * keeps the most recent ticks, and survives restarts as long as its capacity and time effects do
+ * not change.
+ *
+ * <p>Usage per tick: {@link #beginTick(long, int, int)}, any number of
+ * {@link #recordEffect(TimeEffect, long)}, then {@link #endTick}.
+ */
+public class TimeTraceRecorder {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Map<TimeEffect, Integer> effectSlots = new IdentityHashMap<>();
+    private final long[] effectTicks = new long[MAX_EFFECTS];
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private long writeIndex;
+
+    private long gameTime;
+    private int sleeping;
+    private int active;
+    private int flags;
+
+    /** {@return true if a trace file is open} */
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    /**
+     * Opens a trace file, continuing its ring if it was written with the same capacity and time
+     * effects, or starting a new one otherwise.
+     *
+     * @param path  the path of the trace file
+     * @param capacity  the number of ticks kept in the ring
+     */
+    public void open(Path path, int capacity) {
+        close();
+
+        List<TimeEffect> effects = TimeEffects.REGISTRY.get().getValues().stream()
+                .limit(MAX_EFFECTS)
+                .toList();
+        List<String> names = effects.stream()
+                .map(effect -> String.valueOf(TimeEffects.REGISTRY.get().getKey(effect)))
+                .toList();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean compatible = channel.size() == fileSize(capacity);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+            mapped.order(BYTE_ORDER);
+
+            compatible = compatible
+                    && mapped.getInt(MAGIC_OFFSET) == MAGIC
+                    && mapped.getInt(VERSION_OFFSET) == VERSION
+                    && mapped.getInt(RECORD_SIZE_OFFSET) == RECORD_SIZE
+                    && mapped.getInt(CAPACITY_OFFSET) == capacity
+                    && readEffectNames(mapped).equals(names);
+
+            if (!compatible) {
+                writeHeader(mapped, capacity, names);
+            }
+
+            this.buffer = mapped;
+            this.capacity = capacity;
+            this.writeIndex = mapped.getLong(WRITE_INDEX_OFFSET);
+            for (int i = 0; i < effects.size(); i++) {
+                effectSlots.put(effects.get(i), i);
+            }
+            LOGGER.info(MARKER, "Recording time trace to {}.", path);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.error(MARKER, "Failed to open time trace {}.", path, e);
+        }
+    }
+
+    /** Closes the trace file, if open. */
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+            effectSlots.clear();
+        }
+    }
+
+    /**
+     * Starts a new record.
+     *
+     * @param gameTime  the game time of the tick
+     * @param sleeping  the number of sleeping players at the start of the tick
+     * @param active  the number of active players at the start of the tick
+     */
+    public void beginTick(long gameTime, int sleeping, int active) {
+        this.gameTime = gameTime;
+        this.sleeping = sleeping;
+        this.active = active;
+        this.flags = 0;
+        Arrays.fill(effectTicks, 0);
+    }
+
+    /**
+     * Adds a flag to the current record.
+     * @param flag  one of the {@code FLAG_} constants in {@link TimeTrace}
+     */
+    public void addFlag(int flag) {
+        flags |= flag;
+    }
+
+    /**
+     * Records the extra ticks applied by a time effect during the current tick.
+     *
+     * @param effect  the time effect
+     * @param extraTicks  the number of extra ticks it applied
+     */
+    public void recordEffect(TimeEffect effect, long extraTicks) {
+        Integer slot = effectSlots.get(effect);
+        if (slot != null) {
+            effectTicks[slot] += extraTicks;
+        }
+    }
+
+    /**
+     * Writes the current record to the ring.
+     *
+     * @param dayTime  the day time at the end of the tick
+     * @param timeDelta  the amount of time that elapsed during the tick
+     * @param tickScale  the number of vanilla ticks' worth of time the tick represented
+     * @param config  the config used during the tick
+     * @param tickNanos  the time spent on the tick, in nanoseconds
+     */
+    public void endTick(Time dayTime, double timeDelta, double tickScale, TimeConfig config,
+            long tickNanos) {
+        if (buffer == null) {
+            return;
+        }
+
+        int offset = recordOffset(writeIndex, capacity);
+        if (config.enableSleepFeature()) {
+            flags |= FLAG_SLEEP_FEATURE;
+        }
+
+        buffer.putLong(offset + GAME_TIME, gameTime);
+        buffer.putLong(offset + DAY_TIME, dayTime.longValue());
+        buffer.putDouble(offset + FRACTION, dayTime.fractionalValue());
+        buffer.putDouble(offset + TIME_DELTA, timeDelta);
+        buffer.putDouble(offset + TIME_SPEED, timeDelta / tickScale);
+        buffer.putDouble(offset + TICK_SCALE, tickScale);
+        buffer.putInt(offset + SLEEPING, sleeping);
+        buffer.putInt(offset + ACTIVE, active);
+        buffer.putInt(offset + FLAGS, flags);
+        buffer.putLong(offset + TICK_NANOS, tickNanos);
+        buffer.putDouble(offset + DAY_SPEED, config.daySpeed());
+        buffer.putDouble(offset + NIGHT_SPEED, config.nightSpeed());
+        buffer.putDouble(offset + SLEEP_SPEED_MIN, config.sleepSpeedMin());
+        buffer.putDouble(offset + SLEEP_SPEED_MAX, config.sleepSpeedMax());
+        buffer.putDouble(offset + SLEEP_SPEED_ALL, config.sleepSpeedAll());
+        buffer.putDouble(offset + SLEEP_SPEED_CURVE, config.sleepSpeedCurve());
+        buffer.putDouble(offset + SLEEP_SPEED_CAP, config.sleepSpeedCap());
+        for (int i = 0; i < MAX_EFFECTS; i++) {
+            buffer.putLong(offset + EFFECT_TICKS + i * Long.BYTES, effectTicks[i]);
+        }
+
+        // Publish the record only after it is complete.
+        buffer.putLong(WRITE_INDEX_OFFSET, ++writeIndex);
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer, int capacity, List<String> names) {
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putLong(WRITE_INDEX_OFFSET, 0);
+        buffer.putInt(EFFECT_COUNT_OFFSET, names.size());
+        for (int i = 0; i < names.size(); i++) {
+            byte[] name = Arrays.copyOf(names.get(i).getBytes(StandardCharsets.UTF_8),
+                    EFFECT_NAME_SIZE - 1);
+            buffer.put(EFFECT_NAMES_OFFSET + i * EFFECT_NAME_SIZE, name);
+        }
+    }
+
+}
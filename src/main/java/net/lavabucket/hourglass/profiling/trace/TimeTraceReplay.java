@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.profiling.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import net.lavabucket.hourglass.profiling.trace.TimeTrace.Record;
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeEngine;
+import net.lavabucket.hourglass.time.simulation.SimulatedLevel;
+
+/**
+ * Replays a time trace through a headless {@link TimeEngine} and reports every tick whose
+ * recorded time delta differs from the one the engine computes, along with backwards time jumps
+ * and mornings that passed with players sleeping but were not handled.
+ *
+ * <p>Ticks are only compared with the tick before them when their game times are consecutive, so
+ * server restarts and ticks with the daylight cycle disabled are skipped. Changes made by commands
+ * such as {@code /time set} are reported as divergences.
+ *
+ * <p>Usage: {@code TimeTraceReplay <trace file> [fromGameTime [toGameTime]]}
+ */
+public class TimeTraceReplay {
+
+    // The largest difference between a recorded and replayed time delta that is not reported
+    private static final double TOLERANCE = 1e-6;
+    // The amount TimeService subtracts from the time to prevent it from overflowing
+    private static final long OVERFLOW_THRESHOLD = 11184L * Time.LUNAR_CYCLE_TICKS;
+    // The largest number of issues printed individually
+    private static final int MAX_REPORTED = 50;
+
+    private final SimulatedLevel level = new SimulatedLevel();
+    private final TimeEngine engine = new TimeEngine(level, level);
+
+    private long compared;
+    private long divergences;
+    private long backwardJumps;
+    private long missedMornings;
+    private double maxError;
+
+    /**
+     * Replays a single tick against the tick before it.
+     *
+     * @param previous  the previous record
+     * @param record  the record to replay
+     */
+    public void replay(Record previous, Record record) {
+        if (record.gameTime() != previous.gameTime() + 1) {
+            return;
+        }
+
+        double timeDelta = record.timeDelta();
+        if (timeDelta < -Time.LUNAR_CYCLE_TICKS) {
+            timeDelta += OVERFLOW_THRESHOLD;
+        }
+
+        // The vanilla server increments time once before each tick.
+        Time startTime = previous.dayTime().add(1);
+        Time endTime = startTime.add(timeDelta);
+
+        if (timeDelta < 0) {
+            backwardJumps++;
+            report(record, "time jumped backwards by %.4f", -timeDelta);
+        }
+
+        if (record.config().enableSleepFeature() && record.sleeping() > 0
+                && !record.hasFlag(TimeTrace.FLAG_MORNING)
+                && Time.crossedMorning(startTime, endTime)) {
+            missedMornings++;
+            report(record, "morning passed with %d of %d players sleeping but was not handled",
+                    record.sleeping(), record.active());
+        }
+
+        if (record.hasFlag(TimeTrace.FLAG_SKIP)) {
+            return;
+        }
+
+        engine.setDayTime(startTime);
+        level.setPlayers(Math.min(record.sleeping(), record.active()), record.active());
+        double expected = engine.computeTimeDelta(record.config(), startTime, record.tickScale())
+                .doubleValue();
+
+        compared++;
+        double error = Math.abs(timeDelta - expected);
+        maxError = Math.max(maxError, error);
+        if (error > TOLERANCE) {
+            divergences++;
+            report(record, "recorded time delta %.6f, replayed %.6f", timeDelta, expected);
+        }
+    }
+
+    /** {@return true if the replay found no problems} */
+    public boolean passed() {
+        return divergences == 0 && backwardJumps == 0 && missedMornings == 0;
+    }
+
+    /** Prints a summary of the replay. */
+    public void printSummary() {
+        System.out.printf("Compared %d ticks, largest error %.3g%n", compared, maxError);
+        System.out.printf("  divergences:     %d%n", divergences);
+        System.out.printf("  backward jumps:  %d%n", backwardJumps);
+        System.out.printf("  missed mornings: %d%n", missedMornings);
+    }
+
+    private void report(Record record, String format, Object... args) {
+        if (divergences + backwardJumps + missedMornings <= MAX_REPORTED) {
+            System.out.printf("[%d] day time %s: %s%n", record.gameTime(), record.dayTime(),
+                    String.format(format, args));
+        }
+    }
+
+    /**
+     * Replays a trace file and exits with status 1 if problems were found.
+     * @param args  the trace file, and an optional range of game times to replay
+     * @throws IOException if the trace file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TimeTraceReplay <trace file> [fromGameTime [toGameTime]]");
+            System.exit(2);
+        }
+
+        long from = args.length > 1 ? Long.parseLong(args[1]) : Long.MIN_VALUE;
+        long to = args.length > 2 ? Long.parseLong(args[2]) : Long.MAX_VALUE;
+
+        TimeTrace.Contents contents = TimeTrace.read(Path.of(args[0]));
+        List<Record> records = contents.records();
+        System.out.printf("Read %d ticks, time effects: %s%n", records.size(), contents.effects());
+
+        TimeTraceReplay replay = new TimeTraceReplay();
+        long[] effectTicks = new long[contents.effects().size()];
+        for (int i = 1; i < records.size(); i++) {
+            Record record = records.get(i);
+            if (record.gameTime() < from || record.gameTime() > to) {
+                continue;
+            }
+            replay.replay(records.get(i - 1), record);
+            for (int j = 0; j < effectTicks.length; j++) {
+                effectTicks[j] += record.effectTicks()[j];
+            }
+        }
+
+        replay.printSummary();
+        for (int j = 0; j < effectTicks.length; j++) {
+            System.out.printf("  %s: %d extra ticks%n", contents.effects().get(j), effectTicks[j]);
+        }
+        System.exit(replay.passed() ? 0 : 1);
+    }
+
+}
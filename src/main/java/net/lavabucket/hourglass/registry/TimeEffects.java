@@ -23,9 +23,11 @@ import java.util.function.Supplier;
 
 import net.lavabucket.hourglass.Hourglass;
 import net.lavabucket.hourglass.time.effects.BlockEntityTimeEffect;
+import net.lavabucket.hourglass.time.effects.EntityTimeEffect;
 import net.lavabucket.hourglass.time.effects.HungerTimeEffect;
 import net.lavabucket.hourglass.time.effects.PotionTimeEffect;
 import net.lavabucket.hourglass.time.effects.RandomTickSleepEffect;
+import net.lavabucket.hourglass.time.effects.ScheduledTickTimeEffect;
 import net.lavabucket.hourglass.time.effects.TimeEffect;
 import net.lavabucket.hourglass.time.effects.WeatherSleepEffect;
 import net.minecraft.resources.ResourceLocation;
@@ -56,6 +58,8 @@ public class TimeEffects {
     public static final RegistryObject<TimeEffect> POTION_EFFECT = DEFERRED_REGISTRY.register("potion", PotionTimeEffect::new);
     public static final RegistryObject<TimeEffect> HUNGER_EFFECT = DEFERRED_REGISTRY.register("hunger", HungerTimeEffect::new);
     public static final RegistryObject<TimeEffect> BLOCK_ENTITY_EFFECT = DEFERRED_REGISTRY.register("block_entity", BlockEntityTimeEffect::new);
+    public static final RegistryObject<TimeEffect> SCHEDULED_TICK_EFFECT = DEFERRED_REGISTRY.register("scheduled_tick", ScheduledTickTimeEffect::new);
+    public static final RegistryObject<TimeEffect> ENTITY_EFFECT = DEFERRED_REGISTRY.register("entity", EntityTimeEffect::new);
 
     /**
      * Registers {@link #DEFERRED_REGISTRY} to the mod bus for creation and entry registration.
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.lavabucket.hourglass.time.effects.EffectPlan;
+import net.lavabucket.hourglass.time.effects.PlannedTimeEffect;
+import net.lavabucket.hourglass.time.effects.TimeEffect;
+
+/**
+ * Runs the planning phase of {@link PlannedTimeEffect}s on a worker pool ahead of the tick in which
+ * their plans are applied.
+ *
+ * <p>At the end of every tick, {@link TimeService} predicts the context of the following tick and
+ * passes it to {@link #schedule(Iterable, TimeContext)}, which captures the snapshot of each
+ * planned effect and starts planning from it. When the following tick arrives, each planned effect
+ * is applied through {@link #apply(PlannedTimeEffect, TimeContext)}, which uses the precomputed
+ * plan if it finished in time and is still valid, or plans on the server thread otherwise.
+ *
+ * <p>The worker pool is only started once a planned effect is first scheduled.
+ */
+public class EffectPlanner {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** Holds the worker pool, so that it is only created when first used. */
+    private static class Workers {
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Hourglass Effect Planner #%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    private final Map<PlannedTimeEffect<?, ?>, CompletableFuture<? extends EffectPlan>> pending;
+    private long stalePlans;
+
+    /** Creates a new instance. */
+    public EffectPlanner() {
+        this.pending = new IdentityHashMap<>();
+    }
+
+    /**
+     * Captures the snapshot of every {@link PlannedTimeEffect} in {@code effects} for
+     * {@code predicted}, and starts planning from it on the worker pool. Any plans still pending
+     * from a previous call are discarded. Must be called on the server thread.
+     *
+     * @param effects  the active time effects
+     * @param predicted  the predicted context of the next tick
+     */
+    public void schedule(Iterable<TimeEffect> effects, TimeContext predicted) {
+        cancelAll();
+        for (TimeEffect effect : effects) {
+            if (effect instanceof PlannedTimeEffect<?, ?> planned) {
+                pending.put(planned, schedule(planned, predicted));
+            }
+        }
+    }
+
+    /** Captures the snapshot of {@code effect}, then plans it on the worker pool. */
+    private static <S, P extends EffectPlan> CompletableFuture<P> schedule(
+            PlannedTimeEffect<S, P> effect, TimeContext predicted) {
+        S snapshot = effect.snapshot(predicted);
+        return CompletableFuture.supplyAsync(() -> effect.plan(predicted, snapshot), Workers.EXECUTOR);
+    }
+
+    /**
+     * Applies {@code effect} for {@code context}, using the plan computed ahead of time if it is
+     * available and valid. Must be called on the server thread.
+     *
+     * @param <S>  the snapshot type of the effect
+     * @param <P>  the plan type of the effect
+     * @param effect  the effect to apply
+     * @param context  the context of the current tick
+     */
+    public <S, P extends EffectPlan> void apply(PlannedTimeEffect<S, P> effect, TimeContext context) {
+        P plan = takePlan(effect, context);
+        if (plan == null) {
+            plan = effect.plan(context, effect.snapshot(context));
+        }
+        effect.apply(context, plan);
+    }
+
+    /** Discards all pending plans. */
+    public void cancelAll() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+
+    /** {@return the number of precomputed plans that were discarded for being stale} */
+    public long getStalePlanCount() {
+        return stalePlans;
+    }
+
+    /**
+     * Removes the precomputed plan for {@code effect} and returns it if it is complete and valid.
+     *
+     * @param <P>  the plan type of the effect
+     * @param effect  the effect whose plan to retrieve
+     * @param context  the context of the current tick
+     * @return the precomputed plan, or null if none is usable
+     */
+    @SuppressWarnings("unchecked")
+    private <P extends EffectPlan> P takePlan(PlannedTimeEffect<?, P> effect, TimeContext context) {
+        CompletableFuture<? extends EffectPlan> future = pending.remove(effect);
+        if (future == null) {
+            return null;
+        } else if (!future.isDone()) {
+            future.cancel(false);
+            return null;
+        }
+
+        try {
+            P plan = (P) future.getNow(null);
+            if (plan != null && plan.isValidFor(context)) {
+                return plan;
+            }
+            stalePlans++;
+        } catch (CompletionException | CancellationException e) {
+            LOGGER.warn(MARKER, "Time effect planning failed, planning on the server thread instead.", e);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+
+/**
+ * Scales back the work performed by Hourglass while the server is over its tick-time budget.
+ *
+ * <p>The governor samples the server's average tick time (MSPT) and moves between a number of
+ * {@link Stage}s. Higher stages shrink the extra ticks applied by time effects, switch effects to
+ * batched updates, and finally cap the sleep speed. The governor escalates as soon as load rises,
+ * and only recovers one stage at a time after load has stayed low for several samples. Every
+ * transition is logged and kept in a short history.
+ */
+public class LoadGovernor {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** The number of ticks between tick-time samples. */
+    public static final int SAMPLE_INTERVAL = 20;
+    /** The number of consecutive low samples required before recovering one stage. */
+    public static final int RECOVERY_SAMPLES = 5;
+    /** The fraction of a stage's threshold that tick time must drop below to count toward recovery. */
+    public static final double RECOVERY_RATIO = 0.9;
+    /** The number of transitions kept in the transition history. */
+    public static final int HISTORY_SIZE = 16;
+
+    private final Deque<Transition> history;
+    private Stage stage;
+    private double averageTickTime;
+    private int ticksUntilSample;
+    private int recoverySamples;
+
+    /** Creates a new instance. */
+    public LoadGovernor() {
+        this.history = new ArrayDeque<>(HISTORY_SIZE);
+        this.stage = Stage.NORMAL;
+    }
+
+    /**
+     * Samples the server tick time if a sample is due and updates the current stage. Should be
+     * called once per tick.
+     *
+     * @param level  the level whose server should be sampled
+     */
+    public void tick(ServerLevelWrapper level) {
+        if (!SERVER_CONFIG.enableGovernor.get()) {
+            if (stage != Stage.NORMAL) {
+                transition(Stage.NORMAL, level);
+            }
+            return;
+        }
+
+        if (--ticksUntilSample > 0) {
+            return;
+        }
+        ticksUntilSample = SAMPLE_INTERVAL;
+
+        averageTickTime = level.getAverageTickTime();
+        double load = averageTickTime / SERVER_CONFIG.governorTargetTickTime.get();
+        Stage target = Stage.forLoad(load);
+
+        if (target.compareTo(stage) > 0) {
+            recoverySamples = 0;
+            transition(target, level);
+        } else if (stage != Stage.NORMAL && load < stage.threshold * RECOVERY_RATIO) {
+            if (++recoverySamples >= RECOVERY_SAMPLES) {
+                recoverySamples = 0;
+                transition(Stage.values()[stage.ordinal() - 1], level);
+            }
+        } else {
+            recoverySamples = 0;
+        }
+    }
+
+    /**
+     * Scales the number of extra ticks a time effect should apply according to the current stage.
+     *
+     * @param extraTicks  the number of extra ticks the effect would apply at full strength
+     * @return the number of extra ticks to apply
+     */
+    public long scaleExtraTicks(long extraTicks) {
+        return (long) (extraTicks * stage.extraTickMultiplier);
+    }
+
+    /** {@return true if time effects should switch to batched updates} */
+    public boolean isBatched() {
+        return stage.compareTo(Stage.BATCHED) >= 0;
+    }
+
+    /**
+     * {@return the largest sleep speed allowed in the current stage, or positive infinity if the
+     * sleep speed is not capped}
+     */
+    public double getSleepSpeedCap() {
+        if (stage == Stage.CAPPED) {
+            return SERVER_CONFIG.governorSleepSpeedCap.get();
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /** {@return the current stage} */
+    public Stage getStage() {
+        return stage;
+    }
+
+    /** {@return the most recently sampled average tick time in milliseconds} */
+    public double getAverageTickTime() {
+        return averageTickTime;
+    }
+
+    /** {@return the most recent stage transitions, oldest first} */
+    public List<Transition> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    private void transition(Stage newStage, ServerLevelWrapper level) {
+        Transition transition = new Transition(level.get().getGameTime(), stage, newStage, averageTickTime);
+        if (history.size() >= HISTORY_SIZE) {
+            history.removeFirst();
+        }
+        history.addLast(transition);
+        stage = newStage;
+
+        LOGGER.info(MARKER, "Load governor moved from {} to {} (average tick time: {} ms).",
+                transition.from(), transition.to(), String.format("%.2f", transition.averageTickTime()));
+    }
+
+    /** The stages of the governor, from least to most restrictive. */
+    public enum Stage {
+        /** Time effects run at full strength. */
+        NORMAL(0, 1),
+        /** Extra ticks applied by time effects are reduced. */
+        REDUCED(0.8, 0.5),
+        /** Time effects also switch to batched updates. */
+        BATCHED(0.9, 0.5),
+        /** Sleep speed is also capped. */
+        CAPPED(1.0, 0.25);
+
+        /** The fraction of the target tick time at which this stage is entered. */
+        public final double threshold;
+        /** The multiplier applied to the extra ticks of time effects in this stage. */
+        public final double extraTickMultiplier;
+
+        Stage(double threshold, double extraTickMultiplier) {
+            this.threshold = threshold;
+            this.extraTickMultiplier = extraTickMultiplier;
+        }
+
+        /**
+         * {@return the most restrictive stage whose threshold is met by {@code load}}
+         * @param load  the ratio of the average tick time to the target tick time
+         */
+        public static Stage forLoad(double load) {
+            Stage result = NORMAL;
+            for (Stage stage : values()) {
+                if (load >= stage.threshold) {
+                    result = stage;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A change between two governor stages.
+     *
+     * @param gameTime  the game time at which the transition occurred
+     * @param from  the previous stage
+     * @param to  the new stage
+     * @param averageTickTime  the average tick time in milliseconds that caused the transition
+     */
+    public record Transition(long gameTime, Stage from, Stage to, double averageTickTime) {}
+
+}
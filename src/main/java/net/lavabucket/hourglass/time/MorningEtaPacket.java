@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import net.lavabucket.hourglass.client.MorningEtaReceiver;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+import net.minecraftforge.fml.DistExecutor;
+
+/**
+ * Sends a sleeping player the game time at which the next morning is expected to arrive. The
+ * packet is only sent when the estimate changes, and the client counts down to it on its own.
+ *
+ * @param morningGameTime  the game time of the next morning, or {@link #NONE} if no estimate is
+ *     available, such as when the player is no longer sleeping
+ */
+public record MorningEtaPacket(long morningGameTime) {
+
+    /** The value of {@code morningGameTime} when no estimate is available. */
+    public static final long NONE = -1;
+
+    /**
+     * Writes this packet to a buffer.
+     * @param buffer  the buffer to write to
+     */
+    public void encode(FriendlyByteBuf buffer) {
+        buffer.writeVarLong(morningGameTime + 1);
+    }
+
+    /**
+     * {@return a packet read from a buffer}
+     * @param buffer  the buffer to read from
+     */
+    public static MorningEtaPacket decode(FriendlyByteBuf buffer) {
+        return new MorningEtaPacket(buffer.readVarLong() - 1);
+    }
+
+    /**
+     * Applies this packet on the client.
+     *
+     * @param packet  the packet
+     * @param context  the context of the packet
+     */
+    public static void handle(MorningEtaPacket packet, CustomPayloadEvent.Context context) {
+        DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> MorningEtaReceiver.onEtaPacket(packet));
+        context.setPacketHandled(true);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry.Category;
+import net.lavabucket.hourglass.network.HourglassNetwork;
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.PacketDistributor;
+
+/**
+ * Sends the morning estimate of a {@link TimeService} to the sleeping players of its level.
+ *
+ * <p>Each sleeping player is sent a {@link MorningEtaPacket} when they get in bed and whenever the
+ * estimate changes afterwards, such as when another player gets in or out of bed. Players who
+ * stop sleeping are sent {@link MorningEtaPacket#NONE}. Nothing is sent while the estimate stays
+ * the same, since clients count down to the estimated game time on their own. Players without the
+ * Hourglass channel are skipped.
+ */
+public class MorningEtaSynchronizer {
+
+    // The estimate last sent to each sleeping player
+    private final Map<UUID, Long> sent = new HashMap<>();
+
+    /**
+     * Sends the current estimate to every sleeping player whose last received estimate differs
+     * from it. Should be called once per tick.
+     *
+     * @param service  the time service of the level
+     */
+    void update(TimeService service) {
+        if (sent.isEmpty() && service.sleepStatus.allAwake()) {
+            return;
+        }
+
+        long morningGameTime = service.sleepStatus.allAwake()
+                ? MorningEtaPacket.NONE
+                : service.getMorningGameTime();
+        for (ServerPlayer player : service.level.get().players()) {
+            ServerPlayerWrapper wrapper = new ServerPlayerWrapper(player);
+            if (!HourglassNetwork.hasChannel(wrapper)) {
+                continue;
+            }
+
+            long value = wrapper.isSleeping() ? morningGameTime : MorningEtaPacket.NONE;
+            Long last = sent.get(player.getUUID());
+            if (last == null ? value == MorningEtaPacket.NONE : last == value) {
+                continue;
+            }
+
+            if (value == MorningEtaPacket.NONE) {
+                sent.remove(player.getUUID());
+            } else {
+                sent.put(player.getUUID(), value);
+            }
+            send(wrapper, new MorningEtaPacket(value));
+        }
+
+        // Forget players who left the level
+        sent.keySet().removeIf(uuid -> service.level.get().getPlayerByUUID(uuid) == null);
+    }
+
+    private static void send(ServerPlayerWrapper player, MorningEtaPacket packet) {
+        HourglassNetwork.CHANNEL.send(packet, PacketDistributor.PLAYER.with(player.get()));
+        if (NetworkTelemetry.isEnabled()) {
+            int bytes = HourglassNetwork.measure(packet, MorningEtaPacket::encode);
+            NetworkTelemetry.record(Category.MORNING_ETA, player, bytes);
+        }
+    }
+
+}
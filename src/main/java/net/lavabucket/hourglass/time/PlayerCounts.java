@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+/**
+ * The number of active and sleeping players in a level, which determines the speed of time while
+ * the sleep feature is enabled.
+ */
+public interface PlayerCounts {
+
+    /** {@return the number of sleeping players} */
+    int amountSleeping();
+
+    /** {@return the number of players currently active (not spectating)} */
+    int amountActive();
+
+    /** {@return true when all players are awake, false otherwise} */
+    default boolean allAwake() {
+        return amountSleeping() == 0;
+    }
+
+    /** {@return true when all players are sleeping, false otherwise} */
+    default boolean allAsleep() {
+        return amountSleeping() == amountActive();
+    }
+
+    /** {@return the ratio of sleeping players to active players. Value between 0.0 and 1.0} */
+    default double ratio() {
+        return (double) amountSleeping() / (double) amountActive();
+    }
+
+}
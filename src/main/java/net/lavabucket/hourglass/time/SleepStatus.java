@@ -33,7 +33,7 @@ import net.minecraft.server.level.ServerPlayer;
  *
  * This class also includes a number of utility methods and getters for use in Hourglass.
  */
-public class SleepStatus extends net.minecraft.server.players.SleepStatus {
+public class SleepStatus extends net.minecraft.server.players.SleepStatus implements PlayerCounts {
 
     /** The number of active (online and not spectating) players in this dimension. */
     protected int activePlayerCount;
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+/**
+ * An immutable snapshot of the configuration used by {@link TimeEngine} to compute the speed of
+ * time.
+ *
+ * @param daySpeed  the time speed during the day while nobody sleeps
+ * @param nightSpeed  the time speed during the night while nobody sleeps
+ * @param enableSleepFeature  true if sleeping players speed up time
+ * @param sleepSpeedMin  the time speed when the smallest fraction of players sleep
+ * @param sleepSpeedMax  the time speed when almost all players sleep
+ * @param sleepSpeedAll  the time speed when all players sleep, or a negative number to use
+ *     {@code sleepSpeedMax}
+ * @param sleepSpeedCurve  the curvature of the sleep speed curve
+ * @param sleepSpeedCap  the largest sleep speed allowed, or positive infinity if uncapped
+ */
+public record TimeConfig(
+        double daySpeed,
+        double nightSpeed,
+        boolean enableSleepFeature,
+        double sleepSpeedMin,
+        double sleepSpeedMax,
+        double sleepSpeedAll,
+        double sleepSpeedCurve,
+        double sleepSpeedCap) {
+
+    /** The default server configuration, without a sleep speed cap. */
+    public static final TimeConfig DEFAULT = new TimeConfig(1, 1, true, 1, 110, -1, 0.3,
+            Double.POSITIVE_INFINITY);
+
+    /**
+     * Captures the current server configuration.
+     *
+     * @param governor  the load governor that may cap the sleep speed
+     * @return the snapshot
+     */
+    public static TimeConfig capture(LoadGovernor governor) {
+        return new TimeConfig(
+                SERVER_CONFIG.daySpeed.get(),
+                SERVER_CONFIG.nightSpeed.get(),
+                SERVER_CONFIG.enableSleepFeature.get(),
+                SERVER_CONFIG.sleepSpeedMin.get(),
+                SERVER_CONFIG.sleepSpeedMax.get(),
+                SERVER_CONFIG.sleepSpeedAll.get(),
+                SERVER_CONFIG.sleepSpeedCurve.get(),
+                governor.getSleepSpeedCap());
+    }
+
+}
@@ -36,6 +36,14 @@ public class TimeContext {
     protected final Time currentTime;
     /** The amount of time that passed during this time change. */
     protected final Time timeDelta;
+    /** The number of sleeping players in the level when this context was created. */
+    protected final int sleepingPlayers;
+    /** The number of active players in the level when this context was created. */
+    protected final int activePlayers;
+    /** The number of things affected by the time effect currently being applied. */
+    protected int affectedCount;
+    /** The number of extra ticks simulated by the time effect currently being applied. */
+    protected long extraTicks;
 
     /**
      * Creates a new instance.
@@ -48,6 +56,8 @@ public class TimeContext {
         this.timeService = timeService;
         this.currentTime = currentTime;
         this.timeDelta = timeDelta;
+        this.sleepingPlayers = timeService.sleepStatus.amountSleeping();
+        this.activePlayers = timeService.sleepStatus.amountActive();
     }
 
     /** {@return the time service for the level} */
@@ -65,6 +75,66 @@ public class TimeContext {
         return timeDelta;
     }
 
+    /**
+     * {@return the number of sleeping players in the level at the time this context was created}
+     * Unlike {@link SleepStatus#amountSleeping()}, this value is safe to read from any thread.
+     */
+    public int getSleepingPlayers() {
+        return sleepingPlayers;
+    }
+
+    /**
+     * {@return the number of active players in the level at the time this context was created}
+     * Unlike {@link SleepStatus#amountActive()}, this value is safe to read from any thread.
+     */
+    public int getActivePlayers() {
+        return activePlayers;
+    }
+
+    /**
+     * Reports that the time effect currently being applied affected {@code count} things, such as
+     * players or block entity passes. Used for diagnostics only.
+     *
+     * @param count  the number of affected things
+     */
+    public void addAffected(int count) {
+        affectedCount += count;
+    }
+
+    /**
+     * Returns the number of things reported by {@link #addAffected(int)} since the last call to
+     * this method, and resets the count.
+     *
+     * @return the number of affected things
+     */
+    public int takeAffectedCount() {
+        int count = affectedCount;
+        affectedCount = 0;
+        return count;
+    }
+
+    /**
+     * Reports that the time effect currently being applied simulated {@code ticks} extra ticks on
+     * top of the vanilla tick. Used for diagnostics only.
+     *
+     * @param ticks  the number of extra ticks
+     */
+    public void addExtraTicks(long ticks) {
+        extraTicks += ticks;
+    }
+
+    /**
+     * Returns the number of extra ticks reported by {@link #addExtraTicks(long)} since the last
+     * call to this method, and resets the count.
+     *
+     * @return the number of extra ticks
+     */
+    public long takeExtraTicks() {
+        long ticks = extraTicks;
+        extraTicks = 0;
+        return ticks;
+    }
+
     /** {@return the level in which this time tick event occurred} */
     public ServerLevelWrapper getLevel() {
         return getTimeService().level;
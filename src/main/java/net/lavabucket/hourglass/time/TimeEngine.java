@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import net.lavabucket.hourglass.utils.MathUtils;
+
+/**
+ * The time and sleep state machine at the core of {@link TimeService}: computes the speed of time
+ * from the time of day and sleeping players, and advances time while correcting for speed changes
+ * within a tick.
+ *
+ * <p>This class only depends on a {@link TimeSource}, {@link PlayerCounts} and a
+ * {@link TimeConfig} snapshot, so it runs without Minecraft. See
+ * {@link net.lavabucket.hourglass.time.simulation.TimeSimulator}.
+ */
+public class TimeEngine {
+
+    /** Time of day when the sun rises above the horizon. */
+    public static final Time DAY_START = new Time(23500);
+    /** Time of day when the sun sets below the horizon. */
+    public static final Time NIGHT_START = new Time(12500);
+
+    private final TimeSource timeSource;
+    private final PlayerCounts playerCounts;
+    private double timeDecimalAccumulator = 0;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param timeSource  the source of the integral day time
+     * @param playerCounts  the player counts of the level
+     */
+    public TimeEngine(TimeSource timeSource, PlayerCounts playerCounts) {
+        this.timeSource = timeSource;
+        this.playerCounts = playerCounts;
+    }
+
+    /**
+     * Advances time by one tick at the speed given by {@code config}.
+     *
+     * @param config  the config to use
+     * @param tickScale  the number of vanilla ticks' worth of time this tick represents
+     * @return the amount of time that elapsed
+     */
+    public Time tick(TimeConfig config, double tickScale) {
+        Time time = getDayTime();
+        Time timeDelta = computeTimeDelta(config, time, tickScale);
+
+        setDayTime(time.add(timeDelta));
+        return timeDelta;
+    }
+
+    /**
+     * Calculates the amount of time that should elapse during a tick starting at {@code time}.
+     *
+     * @param config  the config to use
+     * @param time  the time at the start of the tick
+     * @param tickScale  the number of vanilla ticks' worth of time this tick represents
+     * @return the amount of time to elapse
+     */
+    public Time computeTimeDelta(TimeConfig config, Time time, double tickScale) {
+        Time timeDelta = new Time(getTimeSpeed(config, time) * tickScale);
+        return correctForOvershoot(config, time, timeDelta, tickScale);
+    }
+
+    /**
+     * Calculates the amount of time that elapses over {@code ticks} ticks starting at {@code time}
+     * while every player is awake, in a single step rather than tick by tick. Whole days are
+     * skipped at once, so the cost does not depend on the number of ticks.
+     *
+     * @param config  the config to use
+     * @param time  the time at the start of the first tick
+     * @param ticks  the number of ticks that pass
+     * @return the amount of time to elapse
+     */
+    public static Time computeAwakeTimeDelta(TimeConfig config, Time time, double ticks) {
+        double dayLength = Time.DAY_LENGTH.subtract(DAY_START).add(NIGHT_START).doubleValue();
+        double nightLength = Time.DAY_TICKS - dayLength;
+        double daySpeed = Math.max(0, config.daySpeed());
+        double nightSpeed = Math.max(0, config.nightSpeed());
+
+        double elapsed = 0;
+        double remaining = ticks;
+        if (daySpeed > 0 && nightSpeed > 0) {
+            double cycleTicks = dayLength / daySpeed + nightLength / nightSpeed;
+            double cycles = Math.floor(remaining / cycleTicks);
+            elapsed += cycles * Time.DAY_TICKS;
+            remaining -= cycles * cycleTicks;
+        }
+
+        // Walk the remaining partial day one day or night period at a time
+        Time timeOfDay = time.timeOfDay();
+        for (int i = 0; i < 3 && remaining > 0; i++) {
+            boolean day = timeOfDay.equals(DAY_START) || timeOfDay.betweenMod(DAY_START, NIGHT_START);
+            double speed = day ? daySpeed : nightSpeed;
+            if (speed <= 0) {
+                break;
+            }
+
+            Time breakpoint = day ? NIGHT_START : DAY_START;
+            double untilBreakpoint = (breakpoint.doubleValue() - timeOfDay.doubleValue()
+                    + Time.DAY_TICKS) % Time.DAY_TICKS;
+            if (remaining * speed < untilBreakpoint) {
+                elapsed += remaining * speed;
+                break;
+            }
+            elapsed += untilBreakpoint;
+            remaining -= untilBreakpoint / speed;
+            timeOfDay = breakpoint;
+        }
+
+        return new Time(elapsed);
+    }
+
+    /**
+     * Calculates the number of ticks until the next morning at the current speeds, in a single
+     * step rather than tick by tick. While players sleep, the speed of time is given by the sleep
+     * curve and stays constant until morning. Otherwise the day and night speeds are integrated
+     * over the remainder of the day. Instant sleep is not taken into account.
+     *
+     * @param config  the config to use
+     * @param time  the current time
+     * @return the number of ticks until morning, or positive infinity if time is stopped before
+     *     morning
+     */
+    public double computeTicksUntilMorning(TimeConfig config, Time time) {
+        double timeOfDay = time.timeOfDay().doubleValue();
+        double untilMorning = Time.DAY_TICKS - timeOfDay;
+
+        if (config.enableSleepFeature() && !playerCounts.allAwake()) {
+            double speed = getTimeSpeed(config, time);
+            return speed > 0 ? untilMorning / speed : Double.POSITIVE_INFINITY;
+        }
+
+        // Walk the remaining day and night periods until morning
+        double ticks = 0;
+        while (untilMorning > 0) {
+            boolean day = timeOfDay >= DAY_START.doubleValue() || timeOfDay < NIGHT_START.doubleValue();
+            double speed = day ? config.daySpeed() : config.nightSpeed();
+            if (speed <= 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+
+            Time breakpoint = day ? NIGHT_START : DAY_START;
+            double untilBreakpoint = (breakpoint.doubleValue() - timeOfDay + Time.DAY_TICKS)
+                    % Time.DAY_TICKS;
+            double span = Math.min(untilBreakpoint, untilMorning);
+            ticks += span / speed;
+            untilMorning -= span;
+            timeOfDay = (timeOfDay + span) % Time.DAY_TICKS;
+        }
+        return ticks;
+    }
+
+    /**
+     * Checks to see if the time-speed will change after elapsing time by {@code timeDelta}, and
+     * correct for any overshooting (or undershooting) based on the new speed.
+     *
+     * @param config  the config to use
+     * @param time  the current time
+     * @param timeDelta  the proposed amount of time to elapse
+     * @param tickScale  the number of vanilla ticks' worth of time this tick represents
+     * @return the adjusted amount of time to elapse
+     */
+    public Time correctForOvershoot(TimeConfig config, Time time, Time timeDelta,
+            double tickScale) {
+        Time nextTime = time.add(timeDelta);
+        Time timeOfDay = time.timeOfDay();
+        Time nextTimeOfDay = nextTime.timeOfDay();
+
+        if (playerCounts.allAwake()) {
+            // day to night transition
+            if (NIGHT_START.betweenMod(timeOfDay, nextTimeOfDay)) {
+                double nextTimeSpeed = getTimeSpeed(config, nextTime) * tickScale;
+                Time timeUntilBreakpoint = NIGHT_START.subtract(timeOfDay);
+                double breakpointRatio = 1 - timeUntilBreakpoint.divide(timeDelta);
+
+                return timeUntilBreakpoint.add(nextTimeSpeed * breakpointRatio);
+            }
+
+            // day to night transition
+            if (DAY_START.betweenMod(timeOfDay, nextTimeOfDay)) {
+                double nextTimeSpeed = getTimeSpeed(config, nextTime) * tickScale;
+                Time timeUntilBreakpoint = DAY_START.subtract(timeOfDay);
+                double breakpointRatio = 1 - timeUntilBreakpoint.divide(timeDelta);
+
+                return timeUntilBreakpoint.add(nextTimeSpeed * breakpointRatio);
+            }
+        } else {
+            // morning transition
+            Time timeUntilMorning = Time.DAY_LENGTH.subtract(timeOfDay);
+            if (timeUntilMorning.compareTo(timeDelta) < 0) {
+                double nextTimeSpeed = config.daySpeed() * tickScale;
+                double breakpointRatio = 1 - timeUntilMorning.divide(timeDelta);
+
+                return timeUntilMorning.add(nextTimeSpeed * breakpointRatio);
+            }
+        }
+
+        return timeDelta;
+    }
+
+    /**
+     * Calculates the current time-speed multiplier based on the time-of-day and number of sleeping
+     * players.
+     *
+     * Accepts time as a parameter to allow for prediction of other times. Prediction of times other
+     * than the current time may not be accurate due to sleeping player changes.
+     *
+     * A return value of 1 is equivalent to vanilla time speed.
+     *
+     * @param config  the config to use
+     * @param time  the time at which to calculate the time-speed
+     * @return the time-speed
+     */
+    public double getTimeSpeed(TimeConfig config, Time time) {
+        if (!config.enableSleepFeature() || playerCounts.allAwake()) {
+            if (time.equals(DAY_START) || time.timeOfDay().betweenMod(DAY_START, NIGHT_START)) {
+                return config.daySpeed();
+            } else {
+                return config.nightSpeed();
+            }
+        }
+
+        if (playerCounts.allAsleep() && config.sleepSpeedAll() >= 0) {
+            return Math.min(config.sleepSpeedAll(), config.sleepSpeedCap());
+        }
+
+        double sleepRatio = playerCounts.ratio();
+        double speedRatio = MathUtils.normalizedTunableSigmoid(sleepRatio, config.sleepSpeedCurve());
+        double multiplier = MathUtils.lerp(speedRatio, config.sleepSpeedMin(), config.sleepSpeedMax());
+
+        return Math.min(multiplier, config.sleepSpeedCap());
+    }
+
+    /**
+     * {@return the current time, including the fractional part kept by this engine}
+     */
+    public Time getDayTime() {
+        return new Time(timeSource.getDayTime(), timeDecimalAccumulator);
+    }
+
+    /**
+     * Sets the time source to the integer component of {@code time}, and keeps its fractional
+     * component.
+     *
+     * @param time  the time to set
+     * @return the new time
+     */
+    public Time setDayTime(Time time) {
+        timeDecimalAccumulator = time.fractionalValue();
+        timeSource.setDayTime(time.longValue());
+        return time;
+    }
+
+}
@@ -23,15 +23,31 @@ import static net.lavabucket.hourglass.Hourglass.MARKER;
 import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import net.lavabucket.hourglass.event.SleepStateChangedEvent;
+import net.lavabucket.hourglass.event.TimeSpeedChangedEvent;
+import net.lavabucket.hourglass.metrics.HourglassMetrics;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry.Category;
+import net.lavabucket.hourglass.profiling.TickProfiler;
+import net.lavabucket.hourglass.profiling.jfr.MorningEvent;
+import net.lavabucket.hourglass.profiling.jfr.TimeBroadcastEvent;
+import net.lavabucket.hourglass.profiling.jfr.TimeEffectEvent;
+import net.lavabucket.hourglass.profiling.jfr.TimeTickEvent;
+import net.lavabucket.hourglass.profiling.trace.TimeTrace;
+import net.lavabucket.hourglass.profiling.trace.TimeTraceRecorder;
 import net.lavabucket.hourglass.registry.TimeEffects;
+import net.lavabucket.hourglass.time.effects.PlannedTimeEffect;
 import net.lavabucket.hourglass.time.effects.TimeEffect;
-import net.lavabucket.hourglass.utils.MathUtils;
 import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
 import net.lavabucket.hourglass.wrappers.TimePacketWrapper;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.ForgeEventFactory;
 
 /**
@@ -42,10 +58,19 @@ public class TimeService {
     private static final Logger LOGGER = LogManager.getLogger();
 
     /** Time of day when the sun rises above the horizon. */
-    public static final Time DAY_START = new Time(23500);
+    public static final Time DAY_START = TimeEngine.DAY_START;
 
     /** Time of day when the sun sets below the horizon. */
-    public static final Time NIGHT_START = new Time(12500);
+    public static final Time NIGHT_START = TimeEngine.NIGHT_START;
+
+    // The duration of a tick at the vanilla tick rate
+    private static final long NANOS_PER_TICK = 50_000_000L;
+
+    // The name of the time trace file in the world folder
+    private static final String TRACE_FILE = "hourglass-trace.bin";
+
+    // The largest amount of time that time effects catch up on after being idle
+    private static final Time MAX_IDLE_CATCH_UP = Time.DAY_LENGTH;
 
     // The largest number of lunar cycles that can be stored in an int
     private static final int OVERFLOW_THRESHOLD = 11184 * Time.LUNAR_CYCLE_TICKS;
@@ -54,8 +79,35 @@ public class TimeService {
     public final ServerLevelWrapper level;
     /** The {@code SleepStatus} object for this level. */
     public final SleepStatus sleepStatus;
-
-    private double timeDecimalAccumulator = 0;
+    /** The planner used to run the planning phase of {@link PlannedTimeEffect}s ahead of time. */
+    public final EffectPlanner effectPlanner;
+    /** The governor that scales back time effects while the server is under load. */
+    public final LoadGovernor governor;
+    /** The profiler that measures the phases of each tick. */
+    public final TickProfiler profiler;
+    /** The engine that computes and advances the time of {@link #level}. */
+    public final TimeEngine engine;
+    /** The recorder that writes each tick to the time trace, when enabled. */
+    public final TimeTraceRecorder trace;
+    /** The triggers scheduled at specific day times of {@link #level}. */
+    public final TimeTriggers triggers;
+    /** Sends the morning estimate to sleeping players. */
+    public final MorningEtaSynchronizer morningEta;
+
+    private long lastTickNanos = 0;
+    private double tickScale = 1;
+    private boolean traceEnabled = false;
+    private TimeState lastState;
+    private double postedTimeSpeed;
+    private boolean idle = false;
+    private long idleGameTime;
+
+    // The inputs and result of the last morning estimate
+    private boolean etaStale = true;
+    private TimeConfig etaConfig;
+    private int etaSleeping;
+    private int etaActive;
+    private long morningGameTime;
 
     /**
      * Creates a new instance.
@@ -65,6 +117,13 @@ public class TimeService {
     public TimeService(ServerLevelWrapper level) {
         this.level = level;
         this.sleepStatus = new SleepStatus(() -> SERVER_CONFIG.enableSleepFeature.get());
+        this.effectPlanner = new EffectPlanner();
+        this.governor = new LoadGovernor();
+        this.profiler = new TickProfiler();
+        this.engine = new TimeEngine(level, sleepStatus);
+        this.trace = new TimeTraceRecorder();
+        this.triggers = new TimeTriggers(level, level.getDayTime());
+        this.morningEta = new MorningEtaSynchronizer();
         this.level.setSleepStatus(this.sleepStatus);
     }
 
@@ -72,28 +131,405 @@ public class TimeService {
      * Performs all time, sleep, and weather calculations. Should run once per tick.
      */
     public void tick() {
+        syncTriggers();
         if (!level.daylightRuleEnabled()) {
+            // Time does not pass while the daylight cycle is off, even while idle
+            idleGameTime = level.get().getGameTime();
+            lastTickNanos = 0;
+            publishState(0, false);
+            return;
+        }
+
+        if (updateIdle()) {
+            vanillaTimeCompensation();
+            return;
+        }
+
+        TimeTickEvent tickEvent = new TimeTickEvent();
+        tickEvent.begin();
+        updateTrace();
+        boolean tracing = trace.isOpen();
+        long startNanos = HourglassMetrics.isEnabled() || tracing ? System.nanoTime() : 0;
+        long start = profiler.begin();
+        long split = start;
+        governor.tick(level);
+        TimeConfig config = TimeConfig.capture(governor);
+        Time tickStartTime = getDayTime();
+        if (tracing) {
+            trace.beginTick(level.get().getGameTime(), sleepStatus.amountSleeping(),
+                    sleepStatus.amountActive());
+        }
+
+        if (shouldSkipNight()) {
+            trace.addFlag(TimeTrace.FLAG_SKIP);
+            skipTime(Time.DAY_LENGTH.subtract(getDayTime().timeOfDay()));
+            // The skip replaces the time of this tick, so the next tick does not catch up on it
+            lastTickNanos = 0;
+            split = profiler.record(TickProfiler.SKIP_PHASE, split);
+        } else {
+            Time oldTime = getDayTime();
+            Time deltaTime = tickTime(config);
+            Time time = getDayTime();
+            split = profiler.record(TickProfiler.TIME_PHASE, split);
+
+            TimeContext context = new TimeContext(this, time, deltaTime);
+            for (TimeEffect effect : getActiveTimeEffects()) {
+                applyTimeEffect(effect, context);
+                split = profiler.record(effect, split);
+            }
+
+            triggers.advance(time.longValue());
+            split = profiler.record(TickProfiler.TRIGGER_PHASE, split);
+
+            boolean overrideSleep = SERVER_CONFIG.enableSleepFeature.get();
+            if (overrideSleep && !sleepStatus.allAwake() && Time.crossedMorning(oldTime, time)) {
+                handleMorning();
+                split = profiler.record(TickProfiler.MORNING_PHASE, split);
+            }
+
+            preventTimeOverflow();
+            broadcastTime();
+            morningEta.update(this);
+            split = profiler.record(TickProfiler.BROADCAST_PHASE, split);
+        }
+
+        vanillaTimeCompensation();
+        planNextTick(config);
+        profiler.record(TickProfiler.PLANNING_PHASE, split);
+        profiler.record(TickProfiler.TOTAL_PHASE, start);
+
+        // Include the vanilla increment undone by vanillaTimeCompensation()
+        double timeDelta = getDayTime().subtract(tickStartTime).doubleValue() + 1;
+        tickEvent.end();
+        if (tickEvent.shouldCommit()) {
+            tickEvent.timeDelta = timeDelta;
+            tickEvent.sleepingPlayers = sleepStatus.amountSleeping();
+            tickEvent.activePlayers = sleepStatus.amountActive();
+            tickEvent.commit();
+        }
+
+        long tickNanos = startNanos != 0 ? System.nanoTime() - startNanos : 0;
+        if (HourglassMetrics.isEnabled() && startNanos != 0) {
+            HourglassMetrics.TIME_SPEED.set(timeDelta / tickScale);
+            HourglassMetrics.SLEEPING_PLAYERS.set(sleepStatus.amountSleeping());
+            HourglassMetrics.ACTIVE_PLAYERS.set(sleepStatus.amountActive());
+            HourglassMetrics.TICKS.increment();
+            HourglassMetrics.TICK_SECONDS.add(tickNanos);
+        }
+        if (tracing) {
+            trace.endTick(getDayTime(), timeDelta, tickScale, config, tickNanos);
+        }
+        publishState(timeDelta / tickScale, true);
+    }
+
+    /**
+     * Enters idle mode while the {@code idleFastPath} config is enabled and no player observes the
+     * time of this level, and leaves it otherwise. While idle, time is held in place and time
+     * effects and broadcasts are suspended until {@link #catchUpIdleTime()} is called.
+     *
+     * @return true if this service is idle
+     */
+    private boolean updateIdle() {
+        boolean shouldIdle = SERVER_CONFIG.idleFastPath.get() && !hasObservers();
+        if (shouldIdle && !idle) {
+            idle = true;
+            idleGameTime = level.get().getGameTime();
+            effectPlanner.cancelAll();
+            LOGGER.debug(MARKER, "No players present, time service is idle.");
+        } else if (!shouldIdle && idle) {
+            catchUpIdleTime();
+            idle = false;
+            LOGGER.debug(MARKER, "Players present, time service resumed.");
+        }
+        return idle;
+    }
+
+    /**
+     * Advances time by the amount that would have passed since this service became idle, in a
+     * single step, and applies the time effects owed for that time in bulk. Effects are owed at
+     * most one day, and effects that {@link TimeEffect#affectsPlayers() affect players} are not
+     * applied, since no players were present. Does nothing if this service is not idle.
+     *
+     * <p>Called when a player joins, when the level is saved, and before commands that depend on
+     * the current time.
+     */
+    public void catchUpIdleTime() {
+        if (!idle) {
+            return;
+        }
+
+        long gameTime = level.get().getGameTime();
+        long elapsed = gameTime - idleGameTime;
+        idleGameTime = gameTime;
+        if (elapsed <= 0) {
+            return;
+        }
+
+        Time oldTime = getDayTime();
+        Time duration = TimeEngine.computeAwakeTimeDelta(TimeConfig.capture(governor), oldTime,
+                elapsed);
+        Time time = setDayTime(oldTime.add(duration));
+
+        // Vanilla kept ticking the level while idle, so time effects are only owed the time that
+        // passed beyond one tick per tick.
+        Time owed = duration.subtract(elapsed);
+        if (owed.compareTo(MAX_IDLE_CATCH_UP) > 0) {
+            owed = MAX_IDLE_CATCH_UP;
+        }
+        if (owed.compareTo(new Time(0)) > 0) {
+            TimeContext context = new TimeContext(this, time, owed.add(1));
+            getActiveTimeEffects().stream()
+                    .filter(effect -> !effect.affectsPlayers())
+                    .forEach(effect -> effect.onTimeSkip(context));
+        }
+        triggers.advance(time.longValue());
+        etaStale = true;
+
+        preventTimeOverflow();
+        broadcastTime();
+        lastTickNanos = 0;
+        publishState(getTimeSpeed(getDayTime()), true);
+    }
+
+    /** {@return true if this service is idle, see {@link #catchUpIdleTime()}} */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /** {@return true if any player is in a level whose time is managed by this service} */
+    private boolean hasObservers() {
+        return level.get().getServer().getPlayerList().getPlayers().stream()
+                .map(ServerPlayerWrapper::new)
+                .anyMatch(player -> managesLevel(player.getLevel()));
+    }
+
+    /**
+     * Publishes a snapshot of the current state through {@link TimeServiceManager#getTimeState()}.
+     *
+     * @param timeSpeed  the time speed during the current tick
+     * @param daylightCycle  true if the daylight cycle is enabled
+     */
+    private void publishState(double timeSpeed, boolean daylightCycle) {
+        TimeState state = new TimeState(
+                level.get().getGameTime(),
+                getDayTime(),
+                timeSpeed,
+                sleepStatus.amountSleeping(),
+                sleepStatus.amountActive(),
+                SERVER_CONFIG.enableSleepFeature.get(),
+                daylightCycle);
+        TimeServiceManager.publish(this, state);
+        postChangeEvents(state);
+    }
+
+    /**
+     * Posts a {@link SleepStateChangedEvent} if the player counts changed since the previous tick,
+     * and a {@link TimeSpeedChangedEvent} if the time speed moved further than the
+     * {@code timeSpeedEventThreshold} config from the speed of the last such event.
+     *
+     * @param state  the state of the current tick
+     */
+    private void postChangeEvents(TimeState state) {
+        TimeState previous = lastState;
+        lastState = state;
+        if (previous == null) {
+            postedTimeSpeed = state.timeSpeed();
+            return;
+        }
+
+        if (state.sleepingPlayers() != previous.sleepingPlayers()
+                || state.activePlayers() != previous.activePlayers()) {
+            MinecraftForge.EVENT_BUS.post(new SleepStateChangedEvent(level.get(),
+                    previous.sleepingPlayers(), previous.activePlayers(),
+                    state.sleepingPlayers(), state.activePlayers()));
+        }
+
+        if (Math.abs(state.timeSpeed() - postedTimeSpeed)
+                > SERVER_CONFIG.timeSpeedEventThreshold.get()) {
+            double oldSpeed = postedTimeSpeed;
+            postedTimeSpeed = state.timeSpeed();
+            MinecraftForge.EVENT_BUS.post(new TimeSpeedChangedEvent(level.get(), oldSpeed,
+                    state.timeSpeed()));
+        }
+    }
+
+    /**
+     * Brings {@link #triggers} up to date with changes to the day time made outside of this
+     * service, such as by the time command. Triggers passed by a forward change are run, and
+     * a backward change rewinds the triggers without running them.
+     */
+    private void syncTriggers() {
+        long time = level.getDayTime();
+        if (time != triggers.getTime()) {
+            etaStale = true;
+        }
+        if (time < triggers.getTime()) {
+            triggers.rewind(time);
+        } else {
+            triggers.advance(time);
+        }
+    }
+
+    /**
+     * Opens or closes the time trace when the {@code enableTimeTrace} config changes.
+     */
+    private void updateTrace() {
+        boolean enabled = SERVER_CONFIG.enableTimeTrace.get();
+        if (enabled == traceEnabled) {
             return;
         }
 
+        traceEnabled = enabled;
+        if (enabled) {
+            trace.open(level.get().getServer().getWorldPath(LevelResource.ROOT).resolve(TRACE_FILE),
+                    SERVER_CONFIG.timeTraceTicks.get());
+        } else {
+            trace.close();
+        }
+    }
+
+    /**
+     * Jumps time forward by {@code duration} in a single step. Every time effect is applied once
+     * for the full duration through {@link TimeEffect#onTimeSkip(TimeContext)}, and morning is
+     * handled if the skip crossed it.
+     *
+     * @param duration  the amount of time to skip
+     * @return the new time
+     */
+    public Time skipTime(Time duration) {
+        catchUpIdleTime();
         Time oldTime = getDayTime();
-        Time deltaTime = tickTime();
-        Time time = getDayTime();
+        Time time = setDayTime(oldTime.add(duration));
 
-        TimeContext context = new TimeContext(this, time, deltaTime);
-        getActiveTimeEffects().forEach(effect -> effect.onTimeTick(context));
+        TimeContext context = new TimeContext(this, time, duration);
+        getActiveTimeEffects().forEach(effect -> effect.onTimeSkip(context));
+        triggers.advance(time.longValue());
+        etaStale = true;
 
         boolean overrideSleep = SERVER_CONFIG.enableSleepFeature.get();
         if (overrideSleep && !sleepStatus.allAwake() && Time.crossedMorning(oldTime, time)) {
             handleMorning();
         }
 
+        effectPlanner.cancelAll();
         preventTimeOverflow();
         broadcastTime();
-        vanillaTimeCompensation();
+        return time;
+    }
+
+    /**
+     * Returns the game time at which the next morning arrives at the current speeds. The estimate
+     * is computed in a single step by
+     * {@link TimeEngine#computeTicksUntilMorning(TimeConfig, Time)}, and is only recomputed when
+     * the speed config or player counts change, when time is changed outside of this service, or
+     * once the estimated morning has passed.
+     *
+     * @return the game time of the next morning, or -1 if time is stopped before morning
+     */
+    public long getMorningGameTime() {
+        if (!level.daylightRuleEnabled()) {
+            return -1;
+        }
+
+        long gameTime = level.get().getGameTime();
+        TimeConfig config = TimeConfig.capture(governor);
+        if (etaStale
+                || !config.equals(etaConfig)
+                || sleepStatus.amountSleeping() != etaSleeping
+                || sleepStatus.amountActive() != etaActive
+                || (morningGameTime >= 0 && morningGameTime < gameTime)) {
+
+            etaStale = false;
+            etaConfig = config;
+            etaSleeping = sleepStatus.amountSleeping();
+            etaActive = sleepStatus.amountActive();
+            double ticks = engine.computeTicksUntilMorning(config, getDayTime());
+            morningGameTime = Double.isInfinite(ticks) ? -1 : gameTime + (long) Math.ceil(ticks);
+        }
+        return morningGameTime;
+    }
+
+    /** {@return the number of ticks until the next morning, or -1 if time is stopped before morning} */
+    public long getTicksUntilMorning() {
+        long morning = getMorningGameTime();
+        return morning < 0 ? -1 : Math.max(0, morning - level.get().getGameTime());
+    }
+
+    /**
+     * {@return true if instant sleep is enabled and every active player has been sleeping long
+     * enough to pass the night}
+     */
+    private boolean shouldSkipNight() {
+        return SERVER_CONFIG.enableSleepFeature.get()
+                && SERVER_CONFIG.instantSleep.get()
+                && !sleepStatus.allAwake()
+                && sleepStatus.allAsleep()
+                && level.get().players().stream()
+                        .filter(player -> !player.isSpectator())
+                        .map(ServerPlayerWrapper::new)
+                        .allMatch(ServerPlayerWrapper::isSleepingLongEnough);
+    }
+
+    /**
+     * Applies a single time effect for the current tick. Effects that implement
+     * {@link PlannedTimeEffect} are applied through {@link #effectPlanner}.
+     *
+     * @param effect  the effect to apply
+     * @param context  the context of the current tick
+     */
+    private void applyTimeEffect(TimeEffect effect, TimeContext context) {
+        TimeEffectEvent event = new TimeEffectEvent();
+        event.begin();
+        long metricsStart = HourglassMetrics.isEnabled() ? System.nanoTime() : 0;
+
+        if (effect instanceof PlannedTimeEffect<?, ?> planned) {
+            effectPlanner.apply(planned, context);
+        } else {
+            effect.onTimeTick(context);
+        }
+
+        event.end();
+        int affectedCount = context.takeAffectedCount();
+        long extraTicks = context.takeExtraTicks();
+        if (event.shouldCommit()) {
+            event.effect = String.valueOf(TimeEffects.REGISTRY.get().getKey(effect));
+            event.timeDelta = context.getTimeDelta().doubleValue();
+            event.affectedCount = affectedCount;
+            event.commit();
+        }
+        if (metricsStart != 0) {
+            HourglassMetrics.recordTimeEffect(effect, extraTicks, System.nanoTime() - metricsStart);
+        }
+        if (trace.isOpen()) {
+            trace.recordEffect(effect, extraTicks);
+        }
+    }
+
+    /**
+     * Predicts the context of the next tick and starts the planning phase of all planned time
+     * effects for it. Predictions are invalidated by {@link EffectPlanner} if the sleeping player
+     * count or time changes before the next tick. Nothing is predicted while no planned time
+     * effect is active.
+     *
+     * @param config  the config of the current tick
+     */
+    private void planNextTick(TimeConfig config) {
+        if (getActiveTimeEffects().stream().noneMatch(PlannedTimeEffect.class::isInstance)) {
+            effectPlanner.cancelAll();
+            return;
+        }
+        // Vanilla increments time once before the next tick, which is undone by this service.
+        Time time = getDayTime().add(1);
+        Time timeDelta = engine.computeTimeDelta(config, time, tickScale);
+        effectPlanner.schedule(getActiveTimeEffects(), new TimeContext(this, time.add(timeDelta), timeDelta));
     }
 
     private void handleMorning() {
+        trace.addFlag(TimeTrace.FLAG_MORNING);
+        MorningEvent event = new MorningEvent();
+        event.begin();
+        event.sleepingPlayers = sleepStatus.amountSleeping();
+
         long time = level.get().getDayTime();
         ForgeEventFactory.onSleepFinished(level.get(), time, time);
         sleepStatus.removeAllSleepers();
@@ -105,6 +541,7 @@ public class TimeService {
 
         LOGGER.debug(MARKER, "Sleep cycle complete on dimension: {}.",
                 level.get().dimension().location());
+        event.commit();
     }
 
     /**
@@ -127,6 +564,7 @@ public class TimeService {
         long time = level.get().getDayTime();
         if (time > OVERFLOW_THRESHOLD) {
             level.get().setDayTime(time - OVERFLOW_THRESHOLD);
+            triggers.shift(-OVERFLOW_THRESHOLD);
         }
     }
 
@@ -134,61 +572,32 @@ public class TimeService {
      * Progresses time in this {@link #level} based on the current time-speed.
      * This method should be called every tick.
      *
+     * @param config  the config of the current tick
      * @return the amount of time that elapsed
      */
-    private Time tickTime() {
-        Time time = getDayTime();
-
-        Time timeDelta = new Time(getTimeSpeed(time));
-        timeDelta = correctForOvershoot(time, timeDelta);
-
-        setDayTime(time.add(timeDelta));
-        return timeDelta;
+    private Time tickTime(TimeConfig config) {
+        tickScale = updateTickScale();
+        return engine.tick(config, tickScale);
     }
 
     /**
-     * Checks to see if the time-speed will change after elapsing time by {@code timeDelta}, and
-     * correct for any overshooting (or undershooting) based on the new speed.
+     * Measures the real time elapsed since the previous call to this method and converts it into a
+     * number of vanilla ticks, capped by the {@code maxCatchUpTicks} config. Returns 1 when
+     * wall-clock time is disabled.
      *
-     * @param time  the current time
-     * @param timeDelta  the proposed amount of time to elapse
-     * @return the adjusted amount of time to elapse
+     * @return the number of vanilla ticks' worth of time this tick represents
      */
-    private Time correctForOvershoot(Time time, Time timeDelta) {
-        Time nextTime = time.add(timeDelta);
-        Time timeOfDay = time.timeOfDay();
-        Time nextTimeOfDay = nextTime.timeOfDay();
-
-        if (sleepStatus.allAwake()) {
-            // day to night transition
-            if (NIGHT_START.betweenMod(timeOfDay, nextTimeOfDay)) {
-                double nextTimeSpeed = getTimeSpeed(nextTime);
-                Time timeUntilBreakpoint = NIGHT_START.subtract(timeOfDay);
-                double breakpointRatio = 1 - timeUntilBreakpoint.divide(timeDelta);
-
-                return timeUntilBreakpoint.add(nextTimeSpeed * breakpointRatio);
-            }
-
-            // day to night transition
-            if (DAY_START.betweenMod(timeOfDay, nextTimeOfDay)) {
-                double nextTimeSpeed = getTimeSpeed(nextTime);
-                Time timeUntilBreakpoint = DAY_START.subtract(timeOfDay);
-                double breakpointRatio = 1 - timeUntilBreakpoint.divide(timeDelta);
+    private double updateTickScale() {
+        long now = System.nanoTime();
+        long last = lastTickNanos;
+        lastTickNanos = now;
 
-                return timeUntilBreakpoint.add(nextTimeSpeed * breakpointRatio);
-            }
-        } else {
-            // morning transition
-            Time timeUntilMorning = Time.DAY_LENGTH.subtract(timeOfDay);
-            if (timeUntilMorning.compareTo(timeDelta) < 0) {
-                double nextTimeSpeed = SERVER_CONFIG.daySpeed.get();
-                double breakpointRatio = 1 - timeUntilMorning.divide(timeDelta);
-
-                return timeUntilMorning.add(nextTimeSpeed * breakpointRatio);
-            }
+        if (!SERVER_CONFIG.wallClockTime.get() || last == 0) {
+            return 1;
         }
 
-        return timeDelta;
+        double elapsedTicks = (double) (now - last) / NANOS_PER_TICK;
+        return Math.min(elapsedTicks, SERVER_CONFIG.maxCatchUpTicks.get());
     }
 
     /**
@@ -204,34 +613,14 @@ public class TimeService {
      * @return the time-speed
      */
     public double getTimeSpeed(Time time) {
-        if (!SERVER_CONFIG.enableSleepFeature.get() || sleepStatus.allAwake()) {
-            if (time.equals(DAY_START) || time.timeOfDay().betweenMod(DAY_START, NIGHT_START)) {
-                return SERVER_CONFIG.daySpeed.get();
-            } else {
-                return SERVER_CONFIG.nightSpeed.get();
-            }
-        }
-
-        if (sleepStatus.allAsleep() && SERVER_CONFIG.sleepSpeedAll.get() >= 0) {
-            return SERVER_CONFIG.sleepSpeedAll.get();
-        }
-
-        double sleepRatio = sleepStatus.ratio();
-        double curve = SERVER_CONFIG.sleepSpeedCurve.get();
-        double speedRatio = MathUtils.normalizedTunableSigmoid(sleepRatio, curve);
-
-        double sleepSpeedMin = SERVER_CONFIG.sleepSpeedMin.get();
-        double sleepSpeedMax = SERVER_CONFIG.sleepSpeedMax.get();
-        double multiplier = MathUtils.lerp(speedRatio, sleepSpeedMin, sleepSpeedMax);
-
-        return multiplier;
+        return engine.getTimeSpeed(TimeConfig.capture(governor), time);
     }
 
     /**
      * {@return this level's time as an instance of {@link Time}}
      */
     public Time getDayTime() {
-        return new Time(level.get().getDayTime(), timeDecimalAccumulator);
+        return engine.getDayTime();
     }
 
     /**
@@ -240,19 +629,30 @@ public class TimeService {
      * @return the new time
      */
     public Time setDayTime(Time time) {
-        timeDecimalAccumulator = time.fractionalValue();
-        level.get().setDayTime(time.longValue());
-        return time;
+        return engine.setDayTime(time);
     }
 
     /**
      * Broadcasts the current time to all players who observe it.
      */
     public void broadcastTime() {
+        TimeBroadcastEvent event = new TimeBroadcastEvent();
+        event.begin();
+
         TimePacketWrapper timePacket = TimePacketWrapper.create(level);
-        level.get().getServer().getPlayerList().getPlayers().stream()
-                .filter(player -> managesLevel(new ServerLevelWrapper(player.level())))
-                .forEach(player -> player.connection.send(timePacket.get()));
+        List<ServerPlayerWrapper> recipients = level.get().getServer().getPlayerList()
+                .getPlayers().stream()
+                .map(ServerPlayerWrapper::new)
+                .filter(player -> managesLevel(player.getLevel()))
+                .toList();
+        recipients.forEach(player -> player.get().connection.send(timePacket.get()));
+
+        event.recipients = recipients.size();
+        if (HourglassMetrics.isEnabled()) {
+            HourglassMetrics.TIME_PACKETS.add(recipients.size());
+        }
+        NetworkTelemetry.record(Category.TIME, recipients, timePacket.get());
+        event.commit();
     }
 
     /**
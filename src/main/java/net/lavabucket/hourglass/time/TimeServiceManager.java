@@ -19,9 +19,14 @@
 
 package net.lavabucket.hourglass.time;
 
+import javax.annotation.Nullable;
+
 import net.lavabucket.hourglass.config.HourglassConfig;
+import net.lavabucket.hourglass.event.RegisterTimeTriggersEvent;
 import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.SleepingTimeCheckEvent;
 import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.eventbus.api.Event.Result;
@@ -39,6 +44,33 @@ public class TimeServiceManager {
     /** The earliest time at which players are no longer allowed to sleep in vanilla. */
     public static final Time VANILLA_SLEEP_END = new Time(23460);
 
+    // The latest state published by service; the only state shared with other threads
+    private static volatile TimeState timeState;
+
+    /**
+     * Returns the time and sleep state of the Overworld as of the end of the last tick. Unlike
+     * {@link #service}, this method may be called from any thread, and always returns a
+     * consistent snapshot.
+     *
+     * @return the latest state, or null if the Overworld is not loaded or has not ticked yet
+     */
+    @Nullable
+    public static TimeState getTimeState() {
+        return timeState;
+    }
+
+    /**
+     * Publishes the state of a time service for {@link #getTimeState()}.
+     *
+     * @param publisher  the service publishing the state
+     * @param state  the state to publish
+     */
+    static void publish(TimeService publisher, TimeState state) {
+        if (publisher == service) {
+            timeState = state;
+        }
+    }
+
     /**
      * Modifies permitted sleep times to allow players to sleep during the day. Only applies to
      * players in levels controlled by Hourglass while sleep feature is enabled.
@@ -92,6 +124,8 @@ public class TimeServiceManager {
             ServerLevelWrapper level = new ServerLevelWrapper(event.getLevel());
             if (level.get().equals(level.get().getServer().overworld())) {
                 service = new TimeService(level);
+                MinecraftForge.EVENT_BUS.post(
+                        new RegisterTimeTriggersEvent(level.get(), service.triggers));
             }
         }
     }
@@ -104,7 +138,36 @@ public class TimeServiceManager {
     @SubscribeEvent
     public static void onWorldUnload(LevelEvent.Unload event) {
         if (service != null && service.level.get() == event.getLevel()) {
+            service.effectPlanner.cancelAll();
+            service.trace.close();
             service = null;
+            timeState = null;
+        }
+    }
+
+    /**
+     * Event listener that is called when a level is saved. Brings the time of an idle service up to
+     * date so that it is saved.
+     *
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onWorldSave(LevelEvent.Save event) {
+        if (service != null && service.level.get() == event.getLevel()) {
+            service.catchUpIdleTime();
+        }
+    }
+
+    /**
+     * Event listener that is called when a player joins the server. Brings the time of an idle
+     * service up to date before the player's first tick.
+     *
+     * @param event  the event provided by the Forge event bus
+     */
+    @SubscribeEvent
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (service != null) {
+            service.catchUpIdleTime();
         }
     }
 
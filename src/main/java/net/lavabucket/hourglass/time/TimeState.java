@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+/**
+ * An immutable snapshot of the time and sleep state of a level, published by {@link TimeService}
+ * at the end of every tick. Snapshots can be read from any thread through
+ * {@link TimeServiceManager#getTimeState()}.
+ *
+ * @param gameTime  the game time of the tick that published this snapshot
+ * @param dayTime  the day time at the end of the tick
+ * @param timeSpeed  the time speed during the tick, or 0 if the daylight cycle is disabled
+ * @param sleepingPlayers  the number of sleeping players
+ * @param activePlayers  the number of active players
+ * @param sleepFeatureEnabled  true if the sleep feature was enabled during the tick
+ * @param daylightCycle  true if the daylight cycle was enabled during the tick
+ */
+public record TimeState(long gameTime, Time dayTime, double timeSpeed, int sleepingPlayers,
+        int activePlayers, boolean sleepFeatureEnabled, boolean daylightCycle) {
+
+    /** {@return the time of day at the end of the tick} */
+    public Time timeOfDay() {
+        return dayTime.timeOfDay();
+    }
+
+    /** {@return the percentage of active players that are sleeping, like SleepStatus} */
+    public int sleepingPercentage() {
+        return (int) ((double) sleepingPlayers / (double) activePlayers * 100D);
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+
+/**
+ * A callback that runs when the time of a level managed by Hourglass reaches a specific day time.
+ * Triggers are scheduled through {@link TimeTriggers}.
+ */
+@FunctionalInterface
+public interface TimeTrigger {
+
+    /**
+     * Called on the server thread when the day time of {@code level} reaches the time this trigger
+     * was scheduled for. When time jumps forward by a large amount in a single tick, every trigger
+     * that was passed is called in order of its scheduled time.
+     *
+     * @param level  the level whose time reached this trigger
+     * @param time  the day time this trigger was called at
+     */
+    public void onTrigger(ServerLevelWrapper level, long time);
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static net.lavabucket.hourglass.Hourglass.MARKER;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
+
+/**
+ * Schedules {@link TimeTrigger}s at specific day times of a level, such as dusk or a time of
+ * {@code 18000}, so that they do not need to poll the time every tick.
+ *
+ * <p>Triggers are kept in a hierarchical timing wheel keyed by absolute day time. The wheel has
+ * {@value #LEVELS} levels of {@value #SLOTS} slots, where each slot of a level spans a whole
+ * revolution of the level below it, and a bitmap of occupied slots per level. Triggers further
+ * away than the wheel can hold are kept in an overflow queue. Advancing the wheel skips directly
+ * to the next occupied slot, so advancing time by any amount only costs the number of triggers
+ * that are passed, plus the occasional move of a slot to a lower level.
+ *
+ * <p>All methods must be called on the server thread.
+ */
+public class TimeTriggers {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /** The number of levels of the timing wheel. */
+    public static final int LEVELS = 4;
+    /** The number of slots in each level of the timing wheel. */
+    public static final int SLOTS = 64;
+
+    private static final int SLOT_BITS = Integer.numberOfTrailingZeros(SLOTS);
+    private static final int WHEEL_BITS = LEVELS * SLOT_BITS;
+
+    private final ServerLevelWrapper level;
+    @SuppressWarnings("unchecked")
+    private final List<Registration>[][] slots = new List[LEVELS][SLOTS];
+    private final long[] occupied = new long[LEVELS];
+    private final PriorityQueue<Registration> overflow =
+            new PriorityQueue<>(Comparator.comparingLong(registration -> registration.time));
+
+    // The earliest day time that has not been processed yet
+    private long now;
+    // The day time that the wheel is currently being advanced to
+    private long target;
+    private int size;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param level  the level passed to triggers
+     * @param time  the current day time of {@code level}
+     */
+    TimeTriggers(ServerLevelWrapper level, long time) {
+        this.level = level;
+        this.now = time + 1;
+        this.target = time;
+    }
+
+    /**
+     * Schedules {@code trigger} to run once when the day time reaches {@code time}. If
+     * {@code time} has already passed, the trigger runs during the next tick.
+     *
+     * @param time  the absolute day time to run the trigger at
+     * @param trigger  the trigger
+     * @return the registration, which may be used to cancel the trigger
+     */
+    public Registration schedule(long time, TimeTrigger trigger) {
+        Registration registration = new Registration(trigger, time, -1);
+        insert(registration);
+        size++;
+        return registration;
+    }
+
+    /**
+     * Schedules {@code trigger} to run every day when the time of day reaches {@code timeOfDay}.
+     * If time jumps forward by more than a day in a single tick, the trigger only runs once.
+     *
+     * @param timeOfDay  the time of day to run the trigger at, such as
+     *     {@link TimeService#NIGHT_START} for dusk
+     * @param trigger  the trigger
+     * @return the registration, which may be used to cancel the trigger
+     */
+    public Registration scheduleDaily(Time timeOfDay, TimeTrigger trigger) {
+        long time = timeOfDay.timeOfDay().longValue();
+        Registration registration = new Registration(trigger, nextOccurrence(time, now), time);
+        insert(registration);
+        size++;
+        return registration;
+    }
+
+    /** {@return the number of scheduled triggers} */
+    public int size() {
+        return size;
+    }
+
+    /** {@return the latest day time whose triggers have run} */
+    public long getTime() {
+        return now - 1;
+    }
+
+    /**
+     * Runs every trigger scheduled at or before {@code time} that has not run yet, in order of
+     * scheduled time.
+     *
+     * @param time  the day time to advance to
+     */
+    void advance(long time) {
+        target = time;
+        while (now <= time) {
+            long due = occupied[0] & (-1L << (now & (SLOTS - 1)));
+            if (due != 0) {
+                long dueTime = (now & -SLOTS) | Long.numberOfTrailingZeros(due);
+                if (dueTime > time) {
+                    break;
+                }
+                now = dueTime;
+                fire(dueTime);
+            } else if (!cascade(time)) {
+                break;
+            }
+        }
+        now = Math.max(now, time + 1);
+    }
+
+    /**
+     * Moves the wheel to {@code time} after the day time moved backwards, without running any
+     * triggers. Daily triggers are rescheduled to their next occurrence after {@code time}.
+     *
+     * @param time  the new day time
+     */
+    void rewind(long time) {
+        rebuild(time, 0);
+    }
+
+    /**
+     * Shifts the wheel and every scheduled trigger by {@code amount}, after the day time was
+     * reduced to keep it from overflowing.
+     *
+     * @param amount  the amount to shift by, a multiple of {@link Time#DAY_TICKS}
+     */
+    void shift(long amount) {
+        rebuild(now - 1 + amount, amount);
+    }
+
+    /**
+     * Runs the triggers of the level 0 slot for {@code time}. Daily triggers are rescheduled to
+     * their next occurrence after the time being advanced to.
+     */
+    private void fire(long time) {
+        int slot = (int) (time & (SLOTS - 1));
+        List<Registration> due = takeSlot(0, slot);
+        for (Registration registration : due) {
+            if (!registration.active) {
+                continue;
+            }
+
+            if (registration.timeOfDay >= 0) {
+                registration.time = nextOccurrence(registration.timeOfDay, target + 1);
+                insert(registration);
+            } else {
+                registration.active = false;
+                size--;
+            }
+
+            try {
+                registration.trigger.onTrigger(level, time);
+            } catch (RuntimeException e) {
+                LOGGER.error(MARKER, "Error running time trigger at day time {}.", time, e);
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel to the start of the next occupied slot above level 0, and moves the
+     * triggers of that slot to lower levels.
+     *
+     * <p>The wheel also moves when the next occupied slot starts right after {@code time}, since
+     * the wheel is left at the time following {@code time} once it has been advanced.
+     *
+     * @param time  the day time being advanced to
+     * @return true if the wheel moved, or false if no trigger is scheduled at or before {@code time}
+     */
+    private boolean cascade(long time) {
+        for (int levelIndex = 1; levelIndex < LEVELS; levelIndex++) {
+            int shift = levelIndex * SLOT_BITS;
+            int index = (int) ((now >>> shift) & (SLOTS - 1));
+            long next = index == SLOTS - 1 ? 0 : occupied[levelIndex] & (-1L << (index + 1));
+            if (next == 0) {
+                continue;
+            }
+
+            int slot = Long.numberOfTrailingZeros(next);
+            long slotStart = (now & (-1L << (shift + SLOT_BITS))) | ((long) slot << shift);
+            if (slotStart > time + 1) {
+                return false;
+            }
+            now = slotStart;
+            takeSlot(levelIndex, slot).stream()
+                    .filter(registration -> registration.active)
+                    .forEach(this::insert);
+            return true;
+        }
+
+        while (!overflow.isEmpty() && !overflow.peek().active) {
+            overflow.poll();
+        }
+        if (overflow.isEmpty()) {
+            return false;
+        }
+
+        long wheelStart = overflow.peek().time & (-1L << WHEEL_BITS);
+        if (wheelStart > time + 1) {
+            return false;
+        }
+        now = wheelStart;
+        while (!overflow.isEmpty() && fitsWheel(overflow.peek().time)) {
+            Registration registration = overflow.poll();
+            if (registration.active) {
+                insert(registration);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds {@code registration} to the slot matching its time, in the lowest level whose slots
+     * separate its time from the current time. Past times are treated as the current time.
+     */
+    private void insert(Registration registration) {
+        long time = Math.max(registration.time, now);
+        if (!fitsWheel(time)) {
+            overflow.add(registration);
+            return;
+        }
+
+        long difference = time ^ now;
+        int levelIndex = difference == 0 ? 0 : (63 - Long.numberOfLeadingZeros(difference)) / SLOT_BITS;
+        int slot = (int) ((time >>> (levelIndex * SLOT_BITS)) & (SLOTS - 1));
+        if (slots[levelIndex][slot] == null) {
+            slots[levelIndex][slot] = new ArrayList<>();
+        }
+        slots[levelIndex][slot].add(registration);
+        occupied[levelIndex] |= 1L << slot;
+    }
+
+    /** {@return true if {@code time} is within the span of the wheel at the current time} */
+    private boolean fitsWheel(long time) {
+        return (time ^ now) >>> WHEEL_BITS == 0;
+    }
+
+    /** Removes and returns the triggers of a slot. */
+    private List<Registration> takeSlot(int levelIndex, int slot) {
+        List<Registration> registrations = slots[levelIndex][slot];
+        slots[levelIndex][slot] = null;
+        occupied[levelIndex] &= ~(1L << slot);
+        return registrations;
+    }
+
+    /**
+     * Empties the wheel, moves it to {@code time}, and schedules every active trigger again with
+     * its time shifted by {@code amount}.
+     */
+    private void rebuild(long time, long amount) {
+        List<Registration> registrations = new ArrayList<>(overflow);
+        overflow.clear();
+        for (int levelIndex = 0; levelIndex < LEVELS; levelIndex++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (slots[levelIndex][slot] != null) {
+                    registrations.addAll(takeSlot(levelIndex, slot));
+                }
+            }
+        }
+
+        now = time + 1;
+        target = time;
+        for (Registration registration : registrations) {
+            if (!registration.active) {
+                continue;
+            }
+            registration.time = registration.timeOfDay >= 0
+                    ? nextOccurrence(registration.timeOfDay, now)
+                    : registration.time + amount;
+            insert(registration);
+        }
+    }
+
+    /** {@return the earliest day time at or after {@code from} with the time of day {@code timeOfDay}} */
+    private static long nextOccurrence(long timeOfDay, long from) {
+        long time = from - Math.floorMod(from, Time.DAY_TICKS) + timeOfDay;
+        return time < from ? time + Time.DAY_TICKS : time;
+    }
+
+    /** A trigger scheduled in {@link TimeTriggers}. */
+    public class Registration {
+
+        private final TimeTrigger trigger;
+        // The time of day of a daily trigger, or -1 for a trigger that runs once
+        private final long timeOfDay;
+        private long time;
+        private boolean active = true;
+
+        private Registration(TimeTrigger trigger, long time, long timeOfDay) {
+            this.trigger = trigger;
+            this.time = time;
+            this.timeOfDay = timeOfDay;
+        }
+
+        /** {@return the day time this trigger will run at next} */
+        public long getTime() {
+            return time;
+        }
+
+        /** {@return true if this trigger is still scheduled} */
+        public boolean isActive() {
+            return active;
+        }
+
+        /** Cancels this trigger. Does nothing if the trigger already ran or was cancelled. */
+        public void cancel() {
+            if (active) {
+                active = false;
+                size--;
+            }
+        }
+
+    }
+
+}
@@ -30,21 +30,93 @@ import net.lavabucket.hourglass.time.TimeContext;
  */
 public class BlockEntityTimeEffect extends AbstractTimeEffect {
 
+    /**
+     * The maximum number of extra block entity ticks owed after a time skip. Ticking block entities
+     * is expensive, so a skip only progresses them by a bounded amount.
+     */
+    public static final long MAX_SKIP_TICKS = 1200;
+
+    /**
+     * The maximum number of extra block entity ticks performed each tick to catch up on a time
+     * skip, so that the catch-up is spread over the ticks that follow the skip.
+     */
+    public static final long SKIP_TICKS_PER_TICK = 4;
+
+    // Extra ticks owed for time skips that have not been performed yet
+    private long owedTicks;
+
     @Override
     public void onTimeTick(TimeContext context) {
-        EffectCondition condition = SERVER_CONFIG.blockEntityEffect.get();
         long extraTicks = context.getTimeDelta().longValue() - 1;
+        if (isApplicable(context)) {
+            tickBlockEntities(context, context.getTimeService().governor.scaleExtraTicks(extraTicks));
+        }
+        catchUp(context);
+    }
+
+    /**
+     * Records the extra ticks of the skip, up to {@link #MAX_SKIP_TICKS}, to be performed over the
+     * following ticks by {@link #onTimeTick(TimeContext)}, rather than during the skip itself.
+     *
+     * @param context  the context of the time skip
+     */
+    @Override
+    public void onTimeSkip(TimeContext context) {
+        long extraTicks = context.getTimeDelta().longValue() - 1;
+        if (extraTicks > 0 && isApplicable(context)) {
+            owedTicks = Math.min(MAX_SKIP_TICKS, owedTicks + extraTicks);
+        }
+    }
+
+    /**
+     * Performs up to {@link #SKIP_TICKS_PER_TICK} of the extra ticks owed for previous time skips.
+     * The ticks are owed regardless of whether players are still sleeping, since the skip usually
+     * ends the night.
+     *
+     * @param context  the context of the current tick
+     */
+    private void catchUp(TimeContext context) {
+        if (owedTicks <= 0) {
+            return;
+        }
+        if (SERVER_CONFIG.blockEntityEffect.get() == EffectCondition.NEVER) {
+            owedTicks = 0;
+            return;
+        }
+
+        long ticks = Math.min(owedTicks, SKIP_TICKS_PER_TICK);
+        owedTicks -= ticks;
+        tickBlockEntities(context, context.getTimeService().governor.scaleExtraTicks(ticks));
+    }
+
+    /**
+     * {@return true if the blockEntityEffect config applies to the current state of the level of
+     * {@code context}}
+     * @param context  the context of the time adjustment
+     */
+    private static boolean isApplicable(TimeContext context) {
+        EffectCondition condition = SERVER_CONFIG.blockEntityEffect.get();
         SleepStatus sleepStatus = context.getTimeService().sleepStatus;
+        return condition != EffectCondition.NEVER
+                && !(condition == EffectCondition.SLEEPING && sleepStatus.allAwake());
+    }
 
-        if (extraTicks <= 0
-                || condition == EffectCondition.NEVER
-                || (condition == EffectCondition.SLEEPING && sleepStatus.allAwake())) {
+    /**
+     * Ticks all block entities in the level of {@code context} {@code extraTicks} times.
+     *
+     * @param context  the context of the time adjustment
+     * @param extraTicks  the number of extra ticks to perform
+     */
+    private static void tickBlockEntities(TimeContext context, long extraTicks) {
+        if (extraTicks <= 0) {
             return;
         }
 
         for (int i = 0; i < extraTicks; i++) {
             context.getLevel().tickBlockEntities();
         }
+        context.addAffected((int) extraTicks);
+        context.addExtraTicks(extraTicks);
     }
 
 }
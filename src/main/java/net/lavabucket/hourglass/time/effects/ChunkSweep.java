@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.effects;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * A cursor over the chunk columns around the players of a level, used by time effects that spread
+ * their work over several ticks.
+ *
+ * <p>Extra ticks that accumulate while a sweep is in progress are applied to every column of the
+ * following sweep, so each column is progressed by the same amount no matter how many ticks a
+ * sweep takes.
+ */
+class ChunkSweep {
+
+    /** The chunk columns of the current sweep, as packed chunk positions. */
+    private long[] columns = new long[0];
+    /** The index of the next column to visit in {@link #columns}. */
+    private int cursor;
+    /** The extra ticks applied to every column visited during the current sweep. */
+    private long sweepTicks;
+    /** The extra ticks accumulated during the current sweep, applied during the next sweep. */
+    private long pendingTicks;
+
+    /**
+     * Adds {@code ticks} to the extra ticks applied during the next sweep.
+     * @param ticks  the number of extra ticks that passed
+     */
+    public void accumulate(long ticks) {
+        pendingTicks += ticks;
+    }
+
+    /**
+     * Returns true if a column remains to be visited. When the current sweep is finished and extra
+     * ticks have accumulated, a new sweep is started over the columns within {@code chunkRadius}
+     * of the players in {@code level}. Columns that are not ticking are skipped.
+     *
+     * @param level  the level to sweep
+     * @param chunkRadius  the radius, in chunks, around each player to include
+     * @param sleepersOnly  true to only include the columns around sleeping players
+     * @return true if {@link #next()} may be called, false otherwise
+     */
+    public boolean hasNext(ServerLevel level, int chunkRadius, boolean sleepersOnly) {
+        if (cursor < columns.length) {
+            return true;
+        }
+        if (pendingTicks <= 0) {
+            return false;
+        }
+
+        LongLinkedOpenHashSet sweep = new LongLinkedOpenHashSet();
+        for (ServerPlayer player : level.players()) {
+            if (sleepersOnly && !player.isSleeping()) {
+                continue;
+            }
+            ChunkPos center = player.chunkPosition();
+            for (int x = center.x - chunkRadius; x <= center.x + chunkRadius; x++) {
+                for (int z = center.z - chunkRadius; z <= center.z + chunkRadius; z++) {
+                    long column = ChunkPos.asLong(x, z);
+                    if (level.isPositionEntityTicking(new ChunkPos(column).getWorldPosition())) {
+                        sweep.add(column);
+                    }
+                }
+            }
+        }
+
+        columns = sweep.toLongArray();
+        cursor = 0;
+        sweepTicks = pendingTicks;
+        pendingTicks = 0;
+        return columns.length > 0;
+    }
+
+    /** {@return the position of the next column of the current sweep} */
+    public ChunkPos next() {
+        return new ChunkPos(columns[cursor++]);
+    }
+
+    /** {@return the extra ticks to apply to the columns of the current sweep} */
+    public long getSweepTicks() {
+        return sweepTicks;
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.effects;
+
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeContext;
+
+/**
+ * The result of the planning phase of a {@link PlannedTimeEffect}.
+ *
+ * <p>A plan remembers the {@link TimeContext} it was computed for so that it can be discarded if
+ * the level changed between planning and application. Implementations should extend this class to
+ * hold the outcome of their planning phase.
+ */
+public class EffectPlan {
+
+    /** The time the plan was computed for. */
+    protected final Time currentTime;
+    /** The time delta the plan was computed for. */
+    protected final Time timeDelta;
+    /** The number of sleeping players the plan was computed for. */
+    protected final int sleepingPlayers;
+    /** The number of active players the plan was computed for. */
+    protected final int activePlayers;
+
+    /**
+     * Creates a new instance.
+     * @param context  the context this plan was computed for
+     */
+    public EffectPlan(TimeContext context) {
+        this.currentTime = context.getCurrentTime();
+        this.timeDelta = context.getTimeDelta();
+        this.sleepingPlayers = context.getSleepingPlayers();
+        this.activePlayers = context.getActivePlayers();
+    }
+
+    /**
+     * Returns true if this plan may still be applied in {@code context}, or false if the plan has
+     * gone stale and must be recomputed. Only the integral components of time are compared, since
+     * time effects operate on whole ticks. Implementations may override this method to relax or
+     * tighten the check.
+     *
+     * @param context  the context in which this plan is about to be applied
+     * @return true if this plan is still valid for {@code context}, false otherwise
+     */
+    public boolean isValidFor(TimeContext context) {
+        return currentTime.longValue() == context.getCurrentTime().longValue()
+                && timeDelta.longValue() == context.getTimeDelta().longValue()
+                && sleepingPlayers == context.getSleepingPlayers()
+                && activePlayers == context.getActivePlayers();
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.effects;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.lavabucket.hourglass.Hourglass;
+import net.lavabucket.hourglass.time.SleepStatus;
+import net.lavabucket.hourglass.time.TimeContext;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.AgeableMob;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.animal.Animal;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
+import net.minecraftforge.fml.util.ObfuscationReflectionHelper.UnableToFindFieldException;
+
+/**
+ * Time effect that progresses the timers of non-player entities, such as mob effects, the growth
+ * of baby animals and breeding cooldowns, at the same rate as the speed of time.
+ *
+ * <p>Entities are visited one chunk column at a time in a {@link ChunkSweep} over every column
+ * within range of the players in the level. Since timers are advanced with a single closed-form
+ * update rather than by ticking the entity, the cost of a visit does not depend on the number of
+ * extra ticks. The number of entities visited each tick is limited by the entityEffectBudget
+ * config setting, where each column visited costs at least one entity so that sweeping empty
+ * columns is also limited.
+ */
+public class EntityTimeEffect extends AbstractTimeEffect {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final EntityTypeTest<Entity, LivingEntity> LIVING_ENTITY =
+            EntityTypeTest.forClass(LivingEntity.class);
+
+    private static final Field durationField = findDurationField();
+
+    private final ChunkSweep sweep = new ChunkSweep();
+
+    @Override
+    public void onTimeTick(TimeContext context) {
+        long extraTicks = context.getTimeDelta().longValue() - 1;
+        progressEntities(context, context.getTimeService().governor.scaleExtraTicks(extraTicks));
+    }
+
+    @Override
+    public void onTimeSkip(TimeContext context) {
+        progressEntities(context, context.getTimeDelta().longValue() - 1);
+    }
+
+    /**
+     * Accumulates {@code extraTicks} for the next sweep, then continues the current sweep until
+     * the entity budget for this tick is spent.
+     *
+     * @param context  the context of the time adjustment
+     * @param extraTicks  the number of extra ticks that passed this tick
+     */
+    private void progressEntities(TimeContext context, long extraTicks) {
+        EffectCondition condition = SERVER_CONFIG.entityEffect.get();
+        SleepStatus sleepStatus = context.getTimeService().sleepStatus;
+
+        if (extraTicks > 0
+                && condition != EffectCondition.NEVER
+                && !(condition == EffectCondition.SLEEPING && sleepStatus.allAwake())) {
+            sweep.accumulate(extraTicks);
+        }
+
+        // Use the distance in which entities are ticked when no radius is set.
+        ServerLevel level = context.getLevel().get();
+        int radius = SERVER_CONFIG.entityEffectRadius.get();
+        int chunkRadius = radius > 0
+                ? (radius + 15) >> 4
+                : level.getServer().getPlayerList().getSimulationDistance();
+        boolean sleepersOnly = condition == EffectCondition.SLEEPING;
+        int budget = SERVER_CONFIG.entityEffectBudget.get();
+        int spent = 0;
+        int visited = 0;
+        while (spent < budget && sweep.hasNext(level, chunkRadius, sleepersOnly)) {
+            int progressed = progressColumn(level, sweep.next(), sweep.getSweepTicks());
+            spent += Math.max(1, progressed);
+            visited += progressed;
+        }
+
+        if (visited > 0) {
+            context.addAffected(visited);
+            context.addExtraTicks(sweep.getSweepTicks());
+        }
+    }
+
+    /**
+     * Progresses every non-player living entity in chunk column {@code pos} by {@code ticks}.
+     *
+     * @param level  the level containing the column
+     * @param pos  the position of the column
+     * @param ticks  the number of extra ticks to progress entities by
+     * @return the number of entities progressed
+     */
+    private static int progressColumn(ServerLevel level, ChunkPos pos, long ticks) {
+        AABB bounds = new AABB(pos.getMinBlockX(), level.getMinBuildHeight(), pos.getMinBlockZ(),
+                pos.getMaxBlockX() + 1, level.getMaxBuildHeight(), pos.getMaxBlockZ() + 1);
+
+        // Entities overlapping the column border are only progressed with the column they are in.
+        List<LivingEntity> entities = level.getEntities(LIVING_ENTITY, bounds,
+                entity -> !(entity instanceof Player) && entity.isAlive()
+                        && entity.chunkPosition().equals(pos));
+
+        int amount = (int) Math.min(Integer.MAX_VALUE, ticks);
+        entities.forEach(entity -> progressEntity(entity, amount));
+        return entities.size();
+    }
+
+    /**
+     * Advances the timers of {@code entity} by {@code ticks} ticks in a single step.
+     *
+     * @param entity  the entity to progress
+     * @param ticks  the number of extra ticks to progress the entity by
+     */
+    private static void progressEntity(LivingEntity entity, int ticks) {
+        // Age counts up towards 0 for babies, and down towards 0 during a breeding cooldown.
+        if (entity instanceof AgeableMob mob) {
+            int age = mob.getAge();
+            if (age < 0) {
+                mob.setAge((int) Math.min(0L, (long) age + ticks));
+            } else if (age > 0) {
+                mob.setAge(Math.max(0, age - ticks));
+            }
+        }
+
+        if (entity instanceof Animal animal && animal.getInLoveTime() > 0) {
+            animal.setInLoveTime(Math.max(0, animal.getInLoveTime() - ticks));
+        }
+
+        progressEffects(entity, ticks);
+    }
+
+    /**
+     * Shortens the mob effects of {@code entity} by {@code ticks} ticks, removing the effects that
+     * run out. Periodic effects such as regeneration and poison are not applied for the skipped
+     * ticks.
+     *
+     * @param entity  the entity whose effects to progress
+     * @param ticks  the number of ticks to shorten the effects by
+     */
+    static void progressEffects(LivingEntity entity, int ticks) {
+        if (durationField == null || entity.getActiveEffects().isEmpty()) {
+            return;
+        }
+
+        List<MobEffectInstance> expired = new ArrayList<>();
+        try {
+            for (MobEffectInstance effect : entity.getActiveEffects()) {
+                if (effect.isInfiniteDuration()) {
+                    continue;
+                }
+                int duration = effect.getDuration() - ticks;
+                if (duration > 0) {
+                    durationField.setInt(effect, duration);
+                } else {
+                    expired.add(effect);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            LOGGER.warn(Hourglass.MARKER, "Error progressing mob effects.", e);
+            return;
+        }
+        expired.forEach(effect -> entity.removeEffect(effect.getEffect()));
+    }
+
+    /** {@return the mob effect duration field, or null if it cannot be accessed} */
+    private static Field findDurationField() {
+        try {
+            Field field = ObfuscationReflectionHelper.findField(MobEffectInstance.class, "f_19503_");
+            field.setAccessible(true);
+            return field;
+        } catch (SecurityException | UnableToFindFieldException e) {
+            LOGGER.warn(Hourglass.MARKER, "Unable to access mob effect durations. Entity mob effects will not be progressed.", e);
+            return null;
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ package net.lavabucket.hourglass.time.effects;
 
 import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 import net.lavabucket.hourglass.time.SleepStatus;
@@ -54,7 +55,25 @@ public class HungerTimeEffect extends AbstractTimeEffect {
             playerStream = playerStream.filter(ServerPlayerWrapper::isSleeping);
         }
 
-        playerStream.forEach(player -> tickHunger(player, extraTicks));
+        List<ServerPlayerWrapper> players = playerStream.toList();
+        players.forEach(player -> tickHunger(player, extraTicks));
+        context.addAffected(players.size());
+        context.addExtraTicks(extraTicks);
+    }
+
+    /**
+     * Does nothing. Hunger is not progressed by time skips, since catching up on a whole night of
+     * hunger in a single tick would starve sleeping players on higher difficulties, and ticking it
+     * once per skipped tick would take far longer than a tick.
+     *
+     * @param context  the context of the time skip
+     */
+    @Override
+    public void onTimeSkip(TimeContext context) {}
+
+    @Override
+    public boolean affectsPlayers() {
+        return true;
     }
 
     /** Ticks {@code player} hunger {@code ticks} times. */
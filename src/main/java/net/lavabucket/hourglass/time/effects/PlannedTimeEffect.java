@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.effects;
+
+import net.lavabucket.hourglass.time.TimeContext;
+import net.lavabucket.hourglass.time.TimeService;
+
+/**
+ * A time effect that splits its work into a snapshot phase, a planning phase and an application
+ * phase.
+ *
+ * <p>The snapshot phase runs on the server thread at the end of the previous tick, and copies the
+ * level state that the plan depends on, such as which players are sleeping. The planning phase may
+ * then be executed by {@link TimeService} on a worker thread during the idle time following the
+ * previous tick, using the snapshot and a prediction of the next tick's {@link TimeContext}. The
+ * resulting plan is applied on the server thread if it has not gone stale. If no valid plan is
+ * available when the tick arrives, the snapshot and plan are computed on the server thread instead.
+ *
+ * <p>Since {@link #plan(TimeContext, Object)} may run off of the server thread, implementations
+ * must not read or modify level state from it. Only thread-safe data, such as the snapshot and the
+ * values held by the context itself, may be used.
+ *
+ * <p>Planning only saves server thread time when the planning phase costs much more than taking
+ * the snapshot and applying the plan. Effects whose work is a cheap selection over the level should
+ * remain plain {@link TimeEffect}s. Plans that do not depend on the exact time delta should
+ * override {@link EffectPlan#isValidFor(TimeContext)} so that they do not go stale every tick while
+ * the speed of time changes.
+ *
+ * @param <S>  the snapshot type captured by this effect, which must be immutable
+ * @param <P>  the plan type produced by this effect
+ */
+public interface PlannedTimeEffect<S, P extends EffectPlan> extends TimeEffect {
+
+    /**
+     * Copies the level state needed to plan a tick. Always called on the server thread.
+     *
+     * @param context  the context of the time adjustment the snapshot is captured for
+     * @return the snapshot
+     */
+    public S snapshot(TimeContext context);
+
+    /**
+     * Computes the work to be done during a tick. May be called from any thread.
+     *
+     * @param context  the context of the time adjustment the plan is computed for
+     * @param snapshot  the level state captured by {@link #snapshot(TimeContext)}
+     * @return the plan
+     */
+    public P plan(TimeContext context, S snapshot);
+
+    /**
+     * Applies a plan previously computed by {@link #plan(TimeContext, Object)}. Always called on
+     * the server thread.
+     *
+     * @param context  the context of the current time adjustment
+     * @param plan  a plan that is valid for {@code context}
+     */
+    public void apply(TimeContext context, P plan);
+
+    /**
+     * Captures a snapshot, then plans and applies this effect on the current thread.
+     *
+     * @param context  the context of the time adjustment
+     */
+    @Override
+    public default void onTimeTick(TimeContext context) {
+        apply(context, plan(context, snapshot(context)));
+    }
+
+}
@@ -21,40 +21,125 @@ package net.lavabucket.hourglass.time.effects;
 
 import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Stream;
 
+import net.lavabucket.hourglass.time.LoadGovernor;
 import net.lavabucket.hourglass.time.SleepStatus;
 import net.lavabucket.hourglass.time.TimeContext;
-import net.lavabucket.hourglass.wrappers.ServerLevelWrapper;
 import net.lavabucket.hourglass.wrappers.ServerPlayerWrapper;
 
 /** Time effect that progresses potion effects at the same rate as the speed of time. */
 public class PotionTimeEffect extends AbstractTimeEffect {
 
+    /** The number of ticks over which extra ticks are accumulated while the governor batches effects. */
+    public static final int BATCH_INTERVAL = 20;
+
+    private final Map<UUID, Long> batchedTicks = new HashMap<>();
+    private int batchAge;
+
     @Override
     public void onTimeTick(TimeContext context) {
         EffectCondition condition = SERVER_CONFIG.potionEffect.get();
+        SleepStatus sleepStatus = context.getTimeService().sleepStatus;
+        LoadGovernor governor = context.getTimeService().governor;
+
+        // Batched ticks are only owed while the effect applies, so they are discarded when it
+        // stops applying.
+        if (condition == EffectCondition.NEVER
+                || (condition == EffectCondition.SLEEPING && sleepStatus.allAwake())) {
+            clearBatch();
+            return;
+        }
 
-        if (condition == EffectCondition.NEVER) {
+        // While batched, accumulate extra ticks and apply them together to reduce update packets.
+        // Ticks are accumulated per player, so that each player only receives the ticks that
+        // passed while they were affected. The batch is applied early once extra ticks stop or the
+        // governor stops batching.
+        long extraTicks = governor.scaleExtraTicks(context.getTimeDelta().longValue() - 1);
+        if (extraTicks > 0) {
+            Stream<ServerPlayerWrapper> playerStream = context.getLevel().get().players().stream()
+                    .filter(player -> !player.getActiveEffects().isEmpty())
+                    .map(ServerPlayerWrapper::new);
+
+            if (condition == EffectCondition.SLEEPING) {
+                playerStream = playerStream.filter(ServerPlayerWrapper::isSleeping);
+            }
+
+            playerStream.forEach(player ->
+                    batchedTicks.merge(player.get().getUUID(), extraTicks, Long::sum));
+        }
+        if (batchedTicks.isEmpty()) {
+            batchAge = 0;
+            return;
+        }
+        if (extraTicks > 0 && governor.isBatched() && ++batchAge < BATCH_INTERVAL) {
             return;
         }
 
-        ServerLevelWrapper level = context.getLevel();
+        List<ServerPlayerWrapper> players = context.getLevel().get().players().stream()
+                .filter(player -> batchedTicks.containsKey(player.getUUID()))
+                .map(ServerPlayerWrapper::new)
+                .toList();
+        long ticks = 0;
+        for (ServerPlayerWrapper player : players) {
+            long playerTicks = batchedTicks.get(player.get().getUUID());
+            tickEffects(player, playerTicks);
+            ticks = Math.max(ticks, playerTicks);
+        }
+        clearBatch();
+        context.addAffected(players.size());
+        context.addExtraTicks(ticks);
+    }
+
+    /**
+     * Shortens the effects of the affected players by the full time delta of {@code context} in a
+     * single step, since ticking the effects once per skipped tick would take far longer than a
+     * tick. Periodic effects such as regeneration and poison are not applied for the skipped time.
+     *
+     * @param context  the context of the time skip
+     */
+    @Override
+    public void onTimeSkip(TimeContext context) {
+        EffectCondition condition = SERVER_CONFIG.potionEffect.get();
         SleepStatus sleepStatus = context.getTimeService().sleepStatus;
         long extraTicks = context.getTimeDelta().longValue() - 1;
 
-        if (extraTicks <= 0 || (condition == EffectCondition.SLEEPING && sleepStatus.allAwake())) {
+        if (extraTicks <= 0
+                || condition == EffectCondition.NEVER
+                || (condition == EffectCondition.SLEEPING && sleepStatus.allAwake())) {
             return;
         }
 
-        Stream<ServerPlayerWrapper> playerStream = level.get().players().stream()
+        Stream<ServerPlayerWrapper> playerStream = context.getLevel().get().players().stream()
                 .map(ServerPlayerWrapper::new);
 
         if (condition == EffectCondition.SLEEPING) {
             playerStream = playerStream.filter(ServerPlayerWrapper::isSleeping);
         }
 
-        playerStream.forEach(player -> tickEffects(player, extraTicks));
+        int ticks = (int) Math.min(Integer.MAX_VALUE, extraTicks);
+        List<ServerPlayerWrapper> players = playerStream.toList();
+        players.forEach(player -> {
+            EntityTimeEffect.progressEffects(player.get(), ticks);
+            player.sendMobEffectUpdatePackets();
+        });
+        context.addAffected(players.size());
+        context.addExtraTicks(extraTicks);
+    }
+
+    /** Discards the extra ticks accumulated while batched. */
+    private void clearBatch() {
+        batchedTicks.clear();
+        batchAge = 0;
+    }
+
+    @Override
+    public boolean affectsPlayers() {
+        return true;
     }
 
     /** Ticks all effects on {@code player} {@code ticks} times, then sends client update. */
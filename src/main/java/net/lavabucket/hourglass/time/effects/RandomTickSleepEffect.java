@@ -37,6 +37,20 @@ public class RandomTickSleepEffect extends AbstractTimeEffect {
         updateRandomTickSpeed(context);
     }
 
+    /**
+     * Resets the random tick speed to its base value. Random tick speed is a rate rather than an
+     * accumulated amount, so multiplying it by the length of a time skip would only cause a single
+     * tick of extreme growth.
+     *
+     * @param context  the {@link TimeContext} of the time skip
+     */
+    @Override
+    public void onTimeSkip(TimeContext context) {
+        if (SERVER_CONFIG.randomTickEffect.get() != EffectCondition.NEVER) {
+            context.getLevel().setRandomTickSpeed(SERVER_CONFIG.baseRandomTickSpeed.get());
+        }
+    }
+
     /**
      * Updates the random tick speed based on configuration values.
      * @param context  the {@link TimeContext} of the current tick
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.effects;
+
+import static net.lavabucket.hourglass.config.HourglassConfig.SERVER_CONFIG;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.lavabucket.hourglass.time.SleepStatus;
+import net.lavabucket.hourglass.time.TimeContext;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.ticks.LevelChunkTicks;
+import net.minecraft.world.ticks.ScheduledTick;
+import net.minecraft.world.ticks.TickContainerAccess;
+
+/**
+ * Time effect that brings the scheduled block and fluid ticks of a level, such as redstone
+ * components and flowing lava, forward in time to match the rate of the current time-speed.
+ *
+ * <p>Rather than running scheduled ticks several times per tick, the deadline of each pending
+ * scheduled tick is moved earlier by the number of extra ticks that passed. Chunks are visited one
+ * column at a time in a {@link ChunkSweep} around the players of the level, and the number of
+ * scheduled ticks moved each tick is limited by the scheduledTickEffectBudget config setting. Each
+ * column visited costs at least one scheduled tick, so that sweeping empty columns is also limited.
+ */
+public class ScheduledTickTimeEffect extends AbstractTimeEffect {
+
+    private final ChunkSweep sweep = new ChunkSweep();
+
+    @Override
+    public void onTimeTick(TimeContext context) {
+        long extraTicks = context.getTimeDelta().longValue() - 1;
+        compressScheduledTicks(context, context.getTimeService().governor.scaleExtraTicks(extraTicks));
+    }
+
+    @Override
+    public void onTimeSkip(TimeContext context) {
+        compressScheduledTicks(context, context.getTimeDelta().longValue() - 1);
+    }
+
+    /**
+     * Accumulates {@code extraTicks} for the next sweep, then continues the current sweep until
+     * the scheduled tick budget for this tick is spent.
+     *
+     * @param context  the context of the time adjustment
+     * @param extraTicks  the number of extra ticks that passed this tick
+     */
+    private void compressScheduledTicks(TimeContext context, long extraTicks) {
+        EffectCondition condition = SERVER_CONFIG.scheduledTickEffect.get();
+        SleepStatus sleepStatus = context.getTimeService().sleepStatus;
+
+        if (extraTicks > 0
+                && condition != EffectCondition.NEVER
+                && !(condition == EffectCondition.SLEEPING && sleepStatus.allAwake())) {
+            sweep.accumulate(extraTicks);
+        }
+
+        ServerLevel level = context.getLevel().get();
+        int chunkRadius = (SERVER_CONFIG.scheduledTickEffectRadius.get() + 15) >> 4;
+        boolean sleepersOnly = condition == EffectCondition.SLEEPING;
+        int budget = SERVER_CONFIG.scheduledTickEffectBudget.get();
+        int spent = 0;
+        int moved = 0;
+        while (spent < budget && sweep.hasNext(level, chunkRadius, sleepersOnly)) {
+            int compressed = compressColumn(level, sweep.next(), sweep.getSweepTicks());
+            spent += Math.max(1, compressed);
+            moved += compressed;
+        }
+
+        if (moved > 0) {
+            context.addAffected(moved);
+            context.addExtraTicks(sweep.getSweepTicks());
+        }
+    }
+
+    /**
+     * Moves the scheduled block and fluid ticks of chunk column {@code pos} earlier by
+     * {@code ticks}.
+     *
+     * @param level  the level containing the column
+     * @param pos  the position of the column
+     * @param ticks  the number of extra ticks that passed
+     * @return the number of scheduled ticks moved
+     */
+    private static int compressColumn(ServerLevel level, ChunkPos pos, long ticks) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(pos.x, pos.z);
+        if (chunk == null) {
+            return 0;
+        }
+
+        // This effect runs before the level ticks, so scheduled ticks due at the next game time
+        // are run during the current tick.
+        long earliest = level.getGameTime() + 1;
+        return compress(chunk.getBlockTicks(), earliest, ticks)
+                + compress(chunk.getFluidTicks(), earliest, ticks);
+    }
+
+    /**
+     * Moves every scheduled tick in {@code container} that is due after {@code earliest} earlier
+     * by {@code ticks}, but not earlier than {@code earliest}. The priority and order of each
+     * scheduled tick are kept.
+     *
+     * @param <T>  the type of the scheduled ticks
+     * @param container  the scheduled ticks of a chunk
+     * @param earliest  the earliest game time a scheduled tick may be moved to
+     * @param ticks  the number of ticks to move scheduled ticks by
+     * @return the number of scheduled ticks moved
+     */
+    private static <T> int compress(TickContainerAccess<T> container, long earliest, long ticks) {
+        if (!(container instanceof LevelChunkTicks<T> chunkTicks) || chunkTicks.count() == 0) {
+            return 0;
+        }
+
+        List<ScheduledTick<T>> pending = new ArrayList<>();
+        for (ScheduledTick<T> tick : chunkTicks.getAll().toList()) {
+            if (tick.triggerTick() > earliest) {
+                pending.add(tick);
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        chunkTicks.removeIf(tick -> tick.triggerTick() > earliest);
+
+        // Rescheduling notifies the level of the container's new earliest scheduled tick.
+        for (ScheduledTick<T> tick : pending) {
+            long triggerTick = Math.max(earliest, tick.triggerTick() - ticks);
+            chunkTicks.schedule(new ScheduledTick<>(tick.type(), tick.pos(), triggerTick,
+                    tick.priority(), tick.subTickOrder()));
+        }
+        return pending.size();
+    }
+
+}
@@ -40,4 +40,27 @@ public interface TimeEffect {
      */
     public void onTimeTick(TimeContext context);
 
+    /**
+     * Method that is called by {@link TimeService} when time jumps forward by a large amount in a
+     * single step, such as when a night is skipped. The time delta of {@code context} holds the
+     * full amount of skipped time.
+     *
+     * <p>Implementations should advance whatever they affect by the full time delta in bulk. The
+     * default implementation delegates to {@link #onTimeTick(TimeContext)}.
+     *
+     * @param context  the context of the time skip
+     */
+    public default void onTimeSkip(TimeContext context) {
+        onTimeTick(context);
+    }
+
+    /**
+     * {@return true if this effect affects players} Such effects are not applied for time that
+     * passed while no players were present to be affected, see {@link TimeService#catchUpIdleTime()}.
+     * The default implementation returns false.
+     */
+    public default boolean affectsPlayers() {
+        return false;
+    }
+
 }
@@ -42,6 +42,8 @@ public class WeatherSleepEffect extends AbstractTimeEffect {
         if (level.weatherCycleEnabled()
                 && (condition == ALWAYS || (condition == SLEEPING && !allAwake))) {
             progressWeather(context);
+            context.addAffected(1);
+            context.addExtraTicks(Math.max(0, context.getTimeDelta().longValue() - 1));
         }
     }
 
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.simulation;
+
+import net.lavabucket.hourglass.time.PlayerCounts;
+import net.lavabucket.hourglass.time.TimeSource;
+
+/** A level without Minecraft, holding only a day time and player counts. */
+public class SimulatedLevel implements TimeSource, PlayerCounts {
+
+    private long dayTime;
+    private int activePlayers;
+    private int sleepingPlayers;
+
+    @Override
+    public long getDayTime() {
+        return dayTime;
+    }
+
+    @Override
+    public void setDayTime(long time) {
+        this.dayTime = time;
+    }
+
+    @Override
+    public int amountSleeping() {
+        return sleepingPlayers;
+    }
+
+    @Override
+    public int amountActive() {
+        return activePlayers;
+    }
+
+    /**
+     * Sets the player counts of this level.
+     *
+     * @param sleeping  the number of sleeping players
+     * @param active  the number of active players, which must not be less than {@code sleeping}
+     */
+    public void setPlayers(int sleeping, int active) {
+        if (sleeping < 0 || sleeping > active) {
+            throw new IllegalArgumentException("Invalid player counts: " + sleeping + "/" + active);
+        }
+        this.sleepingPlayers = sleeping;
+        this.activePlayers = active;
+    }
+
+    /** Wakes up all sleeping players. */
+    public void wakeUpAllPlayers() {
+        sleepingPlayers = 0;
+    }
+
+}
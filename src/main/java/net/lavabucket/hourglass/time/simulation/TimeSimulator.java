@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time.simulation;
+
+import net.lavabucket.hourglass.time.Time;
+import net.lavabucket.hourglass.time.TimeConfig;
+import net.lavabucket.hourglass.time.TimeEngine;
+
+/**
+ * Runs the Hourglass time and sleep state machine without Minecraft.
+ *
+ * <p>Each tick advances a {@link SimulatedLevel} through a {@link TimeEngine} exactly like
+ * {@code TimeService} does on the server, and wakes up all players when a night with sleepers
+ * passes morning. Time effects, weather and the vanilla time increment are not simulated.
+ */
+public class TimeSimulator {
+
+    private final SimulatedLevel level;
+    private final TimeEngine engine;
+    private TimeConfig config;
+    private long ticks;
+    private long mornings;
+
+    /**
+     * Creates a new instance starting at time 0 with no players.
+     * @param config  the config to simulate
+     */
+    public TimeSimulator(TimeConfig config) {
+        this.level = new SimulatedLevel();
+        this.engine = new TimeEngine(level, level);
+        this.config = config;
+    }
+
+    /** {@return the simulated level} */
+    public SimulatedLevel getLevel() {
+        return level;
+    }
+
+    /** {@return the engine advancing the simulated level} */
+    public TimeEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Sets the config used for subsequent ticks.
+     * @param config  the config to simulate
+     */
+    public void setConfig(TimeConfig config) {
+        this.config = config;
+    }
+
+    /** {@return the number of ticks simulated} */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** {@return the number of mornings reached with players sleeping} */
+    public long getMornings() {
+        return mornings;
+    }
+
+    /**
+     * Simulates a single vanilla-length tick.
+     * @return the amount of time that elapsed
+     */
+    public Time tick() {
+        return tick(1);
+    }
+
+    /**
+     * Simulates a single tick.
+     *
+     * @param tickScale  the number of vanilla ticks' worth of time this tick represents
+     * @return the amount of time that elapsed
+     */
+    public Time tick(double tickScale) {
+        Time oldTime = engine.getDayTime();
+        Time timeDelta = engine.tick(config, tickScale);
+        ticks++;
+
+        if (config.enableSleepFeature() && !level.allAwake()
+                && Time.crossedMorning(oldTime, engine.getDayTime())) {
+            level.wakeUpAllPlayers();
+            mornings++;
+        }
+        return timeDelta;
+    }
+
+    /**
+     * Simulates a night from {@link TimeEngine#NIGHT_START} with a fixed number of sleeping
+     * players, until the players are woken up by morning or {@code maxTicks} ticks have passed.
+     *
+     * @param sleeping  the number of sleeping players
+     * @param active  the number of active players
+     * @param maxTicks  the largest number of ticks to simulate
+     * @return the result of the night
+     */
+    public NightResult simulateNight(int sleeping, int active, long maxTicks) {
+        engine.setDayTime(TimeEngine.NIGHT_START);
+        level.setPlayers(sleeping, active);
+
+        long startMornings = mornings;
+        double maxTimeDelta = 0;
+        long nightTicks = 0;
+        while (nightTicks < maxTicks && mornings == startMornings) {
+            maxTimeDelta = Math.max(maxTimeDelta, tick().doubleValue());
+            nightTicks++;
+        }
+
+        return new NightResult(nightTicks, mornings != startMornings, maxTimeDelta,
+                engine.getDayTime());
+    }
+
+    /**
+     * Prints the length of a night for every number of sleeping players out of 10 with the default
+     * config. Useful for checking changes to the speed curve.
+     *
+     * @param args  unused
+     */
+    public static void main(String[] args) {
+        TimeSimulator simulator = new TimeSimulator(TimeConfig.DEFAULT);
+        int active = 10;
+        for (int sleeping = 1; sleeping <= active; sleeping++) {
+            NightResult result = simulator.simulateNight(sleeping, active, Time.DAY_TICKS);
+            System.out.printf("%2d/%d sleeping: %5d ticks, max delta %7.2f, ended at %s%n",
+                    sleeping, active, result.ticks(), result.maxTimeDelta(),
+                    result.endTime().timeOfDay());
+        }
+    }
+
+    /**
+     * The result of a simulated night.
+     *
+     * @param ticks  the number of ticks simulated
+     * @param morning  true if the night ended with a morning
+     * @param maxTimeDelta  the largest amount of time that elapsed during a single tick
+     * @param endTime  the time at the end of the night
+     */
+    public record NightResult(long ticks, boolean morning, double maxTimeDelta, Time endTime) {}
+
+}
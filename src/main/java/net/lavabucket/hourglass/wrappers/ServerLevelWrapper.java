@@ -28,6 +28,7 @@ import org.apache.logging.log4j.Logger;
 
 import net.lavabucket.hourglass.Hourglass;
 import net.lavabucket.hourglass.time.SleepStatus;
+import net.lavabucket.hourglass.time.TimeSource;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.GameRules;
 import net.minecraft.world.level.Level;
@@ -47,7 +48,7 @@ import net.minecraftforge.fml.util.ObfuscationReflectionHelper.UnableToFindMetho
  * imports or references {@link ServerLevel}. This class consolidates these variations into itself,
  * allowing other classes to depend on it instead.
  */
-public class ServerLevelWrapper extends Wrapper<ServerLevel> {
+public class ServerLevelWrapper extends Wrapper<ServerLevel> implements TimeSource {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -68,6 +69,16 @@ public class ServerLevelWrapper extends Wrapper<ServerLevel> {
         this.levelData = levelDataClass.cast(this.get().getLevelData());
     }
 
+    @Override
+    public long getDayTime() {
+        return this.get().getDayTime();
+    }
+
+    @Override
+    public void setDayTime(long time) {
+        this.get().setDayTime(time);
+    }
+
     /** {@return true if the 'daylight cycle' game rule is enabled in this level} */
     public boolean daylightRuleEnabled() {
         return this.get().getGameRules().getBoolean(GameRules.RULE_DAYLIGHT);
@@ -145,6 +156,18 @@ public class ServerLevelWrapper extends Wrapper<ServerLevel> {
         }
     }
 
+    /**
+     * {@return the server's average tick time in milliseconds over its recent tick history}
+     */
+    public double getAverageTickTime() {
+        long[] tickTimes = this.get().getServer().tickTimes;
+        long total = 0;
+        for (long tickTime : tickTimes) {
+            total += tickTime;
+        }
+        return total / (double) tickTimes.length / 1_000_000D;
+    }
+
     /**
      * {@return true if {@code level} is a derived level}
      * @param level  the level to check
@@ -22,10 +22,13 @@ package net.lavabucket.hourglass.wrappers;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import net.lavabucket.hourglass.metrics.NetworkTelemetry;
+import net.lavabucket.hourglass.metrics.NetworkTelemetry.Category;
 import net.minecraft.network.protocol.game.ClientboundUpdateMobEffectPacket;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.ChatVisiblity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
 
@@ -74,6 +77,17 @@ public class ServerPlayerWrapper extends Wrapper<ServerPlayer> {
         return wrapped.isSleepingLongEnough();
     }
 
+    /**
+     * Mirrors the check made by the player's "sendSystemMessage" method, which hides chat messages
+     * but not overlay messages from players who have hidden their chat.
+     *
+     * @param overlay  true if the message is an overlay message
+     * @return true if this player should receive the system message, false otherwise
+     */
+    public boolean acceptsSystemMessages(boolean overlay) {
+        return overlay || get().getChatVisibility() != ChatVisiblity.HIDDEN;
+    }
+
     /** {@return the wrapped level this player is in} */
     public ServerLevelWrapper getLevel() {
         return new ServerLevelWrapper(get().level());
@@ -94,6 +108,7 @@ public class ServerPlayerWrapper extends Wrapper<ServerPlayer> {
             int id = get().getId();
             ClientboundUpdateMobEffectPacket packet = new ClientboundUpdateMobEffectPacket(id, e);
             get().connection.send(packet);
+            NetworkTelemetry.record(Category.MOB_EFFECT, this, packet);
         }
     }
 
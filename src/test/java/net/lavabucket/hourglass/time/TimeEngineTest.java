@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.lavabucket.hourglass.time.simulation.SimulatedLevel;
+import net.lavabucket.hourglass.time.simulation.TimeSimulator;
+import net.lavabucket.hourglass.time.simulation.TimeSimulator.NightResult;
+
+/** Tests the speed curves, overshoot correction and morning detection of {@link TimeEngine}. */
+public class TimeEngineTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final SimulatedLevel level = new SimulatedLevel();
+    private final TimeEngine engine = new TimeEngine(level, level);
+
+    /** {@return a config with the given day and night speeds and default sleep settings} */
+    private static TimeConfig speeds(double daySpeed, double nightSpeed) {
+        return new TimeConfig(daySpeed, nightSpeed, true, 1, 110, -1, 0.3,
+                Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void awakeSpeedFollowsTimeOfDay() {
+        TimeConfig config = speeds(2, 5);
+        level.setPlayers(0, 4);
+
+        assertEquals(2, engine.getTimeSpeed(config, new Time(0)), DELTA);
+        assertEquals(2, engine.getTimeSpeed(config, new Time(12499)), DELTA);
+        assertEquals(5, engine.getTimeSpeed(config, TimeEngine.NIGHT_START), DELTA);
+        assertEquals(5, engine.getTimeSpeed(config, new Time(23499)), DELTA);
+        assertEquals(2, engine.getTimeSpeed(config, TimeEngine.DAY_START), DELTA);
+        assertEquals(5, engine.getTimeSpeed(config, new Time(Time.DAY_TICKS * 3 + 18000)), DELTA);
+    }
+
+    @Test
+    public void sleepSpeedIgnoredWhenSleepFeatureDisabled() {
+        TimeConfig config = new TimeConfig(1, 3, false, 1, 110, -1, 0.3, Double.POSITIVE_INFINITY);
+        level.setPlayers(2, 2);
+
+        assertEquals(3, engine.getTimeSpeed(config, Time.MIDNIGHT), DELTA);
+    }
+
+    @Test
+    public void sleepSpeedCurveEndpoints() {
+        TimeConfig config = TimeConfig.DEFAULT;
+
+        level.setPlayers(0, 1);
+        assertEquals(1, engine.getTimeSpeed(config, Time.MIDNIGHT), DELTA);
+
+        level.setPlayers(1, 1);
+        assertEquals(config.sleepSpeedMax(), engine.getTimeSpeed(config, Time.MIDNIGHT), DELTA);
+    }
+
+    @Test
+    public void sleepSpeedCurveIsMonotonic() {
+        int active = 50;
+        double previous = 0;
+        for (int sleeping = 1; sleeping <= active; sleeping++) {
+            level.setPlayers(sleeping, active);
+            double speed = engine.getTimeSpeed(TimeConfig.DEFAULT, Time.MIDNIGHT);
+            assertTrue(speed >= previous, "Speed decreased at " + sleeping + "/" + active);
+            assertTrue(speed >= TimeConfig.DEFAULT.sleepSpeedMin() - DELTA);
+            assertTrue(speed <= TimeConfig.DEFAULT.sleepSpeedMax() + DELTA);
+            previous = speed;
+        }
+    }
+
+    @Test
+    public void sleepSpeedAllOverridesCurve() {
+        TimeConfig config = new TimeConfig(1, 1, true, 1, 110, 60, 0.3, Double.POSITIVE_INFINITY);
+
+        level.setPlayers(3, 3);
+        assertEquals(60, engine.getTimeSpeed(config, Time.MIDNIGHT), DELTA);
+
+        level.setPlayers(2, 3);
+        assertTrue(engine.getTimeSpeed(config, Time.MIDNIGHT) != 60);
+    }
+
+    @Test
+    public void sleepSpeedCapLimitsSpeed() {
+        TimeConfig config = new TimeConfig(1, 1, true, 1, 110, 200, 0.3, 40);
+
+        level.setPlayers(3, 3);
+        assertEquals(40, engine.getTimeSpeed(config, Time.MIDNIGHT), DELTA);
+
+        level.setPlayers(2, 3);
+        assertTrue(engine.getTimeSpeed(config, Time.MIDNIGHT) <= 40);
+    }
+
+    @Test
+    public void overshootCorrectedAtDusk() {
+        TimeConfig config = speeds(2, 10);
+        level.setPlayers(0, 1);
+        Time time = new Time(12499);
+
+        // One tick of day speed reaches dusk halfway through, the rest passes at night speed.
+        Time delta = engine.computeTimeDelta(config, time, 1);
+        assertEquals(1 + 10 * 0.5, delta.doubleValue(), DELTA);
+    }
+
+    @Test
+    public void overshootCorrectedAtDawn() {
+        TimeConfig config = speeds(4, 1);
+        level.setPlayers(0, 1);
+        Time time = new Time(23499.5);
+
+        Time delta = engine.computeTimeDelta(config, time, 1);
+        assertEquals(0.5 + 4 * 0.5, delta.doubleValue(), DELTA);
+    }
+
+    @Test
+    public void overshootCorrectedAtMorning() {
+        TimeConfig config = new TimeConfig(1, 1, true, 1, 110, 100, 0.3, Double.POSITIVE_INFINITY);
+        level.setPlayers(1, 1);
+        Time time = new Time(Time.DAY_TICKS - 10);
+
+        // Sleepers reach morning after a tenth of the tick, the rest passes at day speed.
+        Time delta = engine.computeTimeDelta(config, time, 1);
+        assertEquals(10 + 0.9, delta.doubleValue(), DELTA);
+    }
+
+    @Test
+    public void tickScaleMultipliesTimeDelta() {
+        level.setPlayers(0, 1);
+
+        Time delta = engine.computeTimeDelta(speeds(3, 3), new Time(1000), 2.5);
+        assertEquals(7.5, delta.doubleValue(), DELTA);
+    }
+
+    @Test
+    public void tickKeepsFractionalTime() {
+        level.setPlayers(0, 1);
+        TimeConfig config = speeds(0.25, 0.25);
+
+        for (int i = 0; i < 7; i++) {
+            engine.tick(config, 1);
+        }
+        assertEquals(1, level.getDayTime());
+        assertEquals(1.75, engine.getDayTime().doubleValue(), DELTA);
+    }
+
+    @Test
+    public void awakeTimeDeltaMatchesTicking() {
+        double[][] speeds = {{1, 1}, {2, 0.5}, {0.3, 7}, {1, 0}, {0, 3}, {5, 5}};
+        long[] starts = {0, 12499, 12500, 23499, 23500, 6000, 18000, 100000};
+        int[] tickCounts = {1, 7, 500, 13000, 24000, 60000};
+
+        for (double[] speed : speeds) {
+            TimeConfig config = speeds(speed[0], speed[1]);
+            for (long start : starts) {
+                for (int ticks : tickCounts) {
+                    SimulatedLevel simulated = new SimulatedLevel();
+                    simulated.setDayTime(start);
+                    TimeEngine simulatedEngine = new TimeEngine(simulated, simulated);
+                    for (int i = 0; i < ticks; i++) {
+                        simulatedEngine.tick(config, 1);
+                    }
+
+                    double expected = simulatedEngine.getDayTime().doubleValue() - start;
+                    double actual = TimeEngine.computeAwakeTimeDelta(config, new Time(start), ticks)
+                            .doubleValue();
+                    assertEquals(expected, actual, 1e-3 * Math.max(1, expected), String.format(
+                            "speeds %s/%s from %d over %d ticks", speed[0], speed[1], start, ticks));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ticksUntilMorningMatchesTicking() {
+        double[][] speeds = {{1, 1}, {2, 0.5}, {0.3, 7}, {5, 5}};
+        int[][] counts = {{0, 3}, {1, 3}, {3, 3}, {2, 5}};
+        long[] starts = {1, 12499, 12500, 23499, 23500, 6000, 18000, 100000};
+
+        for (double[] speed : speeds) {
+            TimeConfig config = new TimeConfig(speed[0], speed[1], true, 2, 110, -1, 0.3,
+                    Double.POSITIVE_INFINITY);
+            for (int[] count : counts) {
+                for (long start : starts) {
+                    SimulatedLevel simulated = new SimulatedLevel();
+                    simulated.setDayTime(start);
+                    simulated.setPlayers(count[0], count[1]);
+                    TimeEngine simulatedEngine = new TimeEngine(simulated, simulated);
+
+                    double estimate = simulatedEngine.computeTicksUntilMorning(config,
+                            simulatedEngine.getDayTime());
+                    long day = simulatedEngine.getDayTime().getDay();
+                    int ticks = 0;
+                    while (simulatedEngine.getDayTime().getDay() == day) {
+                        simulatedEngine.tick(config, 1);
+                        ticks++;
+                    }
+
+                    assertEquals(Math.ceil(estimate), ticks, 1, String.format(
+                            "speeds %s/%s with %d/%d sleeping from %d",
+                            speed[0], speed[1], count[0], count[1], start));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ticksUntilMorningInfiniteWhenStopped() {
+        level.setPlayers(0, 1);
+
+        double ticks = engine.computeTicksUntilMorning(speeds(1, 0), new Time(1000));
+        assertEquals(Double.POSITIVE_INFINITY, ticks);
+    }
+
+    @Test
+    public void sleepingNightEndsAtMorning() {
+        TimeSimulator simulator = new TimeSimulator(TimeConfig.DEFAULT);
+        NightResult result = simulator.simulateNight(1, 1, Time.DAY_TICKS);
+
+        assertTrue(result.morning());
+        assertTrue(result.maxTimeDelta() <= TimeConfig.DEFAULT.sleepSpeedMax() + DELTA);
+        // Morning is detected on the tick that crosses it, so the night ends within a tick of it.
+        assertTrue(result.endTime().timeOfDay().doubleValue() <= result.maxTimeDelta());
+        assertEquals(0, simulator.getLevel().amountSleeping());
+    }
+
+    @Test
+    public void moreSleepersShortenTheNight() {
+        TimeSimulator simulator = new TimeSimulator(TimeConfig.DEFAULT);
+        int active = 10;
+        long previous = Long.MAX_VALUE;
+        for (int sleeping = 1; sleeping <= active; sleeping++) {
+            NightResult result = simulator.simulateNight(sleeping, active, Time.DAY_TICKS);
+            assertTrue(result.morning());
+            assertTrue(result.ticks() <= previous, "Night lengthened at " + sleeping + " sleeping");
+            previous = result.ticks();
+        }
+    }
+
+    @Test
+    public void awakeNightDoesNotWakePlayers() {
+        TimeSimulator simulator = new TimeSimulator(speeds(1, 1));
+        NightResult result = simulator.simulateNight(0, 3, Time.DAY_TICKS);
+
+        // Without sleepers, the night passes at night speed and no morning is detected.
+        assertTrue(!result.morning());
+        assertEquals(Time.DAY_TICKS, result.ticks());
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2021 Nick Iacullo
+ *
+ * This file is part of Hourglass.
+ *
+ * Hourglass is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Hourglass is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Hourglass.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.lavabucket.hourglass.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.lavabucket.hourglass.time.TimeTriggers.Registration;
+
+/**
+ * Tests {@link TimeTriggers} against a brute-force model that keeps every trigger in a list and
+ * checks each of them on every advance.
+ */
+public class TimeTriggersTest {
+
+    /** A trigger of the reference model. */
+    private static class Expected {
+        final long time;
+        final Registration registration;
+        boolean cancelled;
+
+        Expected(long time, Registration registration) {
+            this.time = time;
+            this.registration = registration;
+        }
+    }
+
+    @Test
+    public void triggersRunInOrderAtTheirTime() {
+        Random random = new Random(1);
+        for (int trial = 0; trial < 100; trial++) {
+            long start = random.nextInt(1_000_000);
+            TimeTriggers triggers = new TimeTriggers(null, start);
+            List<long[]> fired = new ArrayList<>();
+
+            // Skew times towards the start so that every level of the wheel and the overflow
+            // queue are used.
+            int count = random.nextInt(2000);
+            long[] times = new long[count];
+            for (int i = 0; i < count; i++) {
+                times[i] = start + 1 + (long) (Math.pow(random.nextDouble(), 4) * 50_000_000L);
+                int id = i;
+                triggers.schedule(times[i], (level, time) -> fired.add(new long[] {time, id}));
+            }
+            assertEquals(count, triggers.size());
+
+            long now = start;
+            long end = start + 60_000_000L;
+            long last = Long.MIN_VALUE;
+            int firedCount = 0;
+            while (now < end) {
+                now = Math.min(end, now + 1 + (long) (Math.pow(random.nextDouble(), 3) * 3_000_000));
+                triggers.advance(now);
+                assertEquals(now, triggers.getTime());
+
+                for (long[] trigger : fired) {
+                    assertEquals(times[(int) trigger[1]], trigger[0]);
+                    assertTrue(trigger[0] <= now, "Trigger ran before its time");
+                    assertTrue(trigger[0] >= last, "Triggers ran out of order");
+                    last = trigger[0];
+                }
+
+                // Every trigger at or before the current time has run.
+                firedCount += fired.size();
+                fired.clear();
+                long due = 0;
+                for (long time : times) {
+                    if (time <= now) {
+                        due++;
+                    }
+                }
+                assertEquals(due, firedCount);
+            }
+            assertEquals(0, triggers.size());
+        }
+    }
+
+    @Test
+    public void cancelledTriggersDoNotRun() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 100; trial++) {
+            long start = random.nextInt(20_000_000);
+            TimeTriggers triggers = new TimeTriggers(null, start);
+            List<Expected> expected = new ArrayList<>();
+            List<Long> fired = new ArrayList<>();
+
+            long now = start;
+            long end = start + 300_000;
+            while (now < end) {
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    long time = now + 1 + (long) (Math.pow(random.nextDouble(), 3) * 400_000);
+                    expected.add(new Expected(time,
+                            triggers.schedule(time, (level, t) -> fired.add(t))));
+                }
+                if (!expected.isEmpty() && random.nextInt(4) == 0) {
+                    Expected cancelled = expected.get(random.nextInt(expected.size()));
+                    if (cancelled.registration.isActive()) {
+                        cancelled.cancelled = true;
+                    }
+                    cancelled.registration.cancel();
+                }
+
+                long previous = now;
+                now = Math.min(end, now + 1 + random.nextInt(random.nextInt(10) == 0 ? 20_000 : 40));
+                fired.clear();
+                triggers.advance(now);
+
+                // Exactly the triggers that were not cancelled and are due since the previous
+                // advance have run, in order of time.
+                List<Long> due = new ArrayList<>();
+                for (Expected trigger : expected) {
+                    if (!trigger.cancelled && trigger.time > previous && trigger.time <= now) {
+                        due.add(trigger.time);
+                    }
+                    assertEquals(!trigger.cancelled && trigger.time > now,
+                            trigger.registration.isActive());
+                }
+                due.sort(null);
+                assertEquals(due, fired);
+            }
+
+            long active = expected.stream().filter(trigger -> trigger.registration.isActive()).count();
+            assertEquals(active, triggers.size());
+            triggers.advance(Long.MAX_VALUE / 4);
+            assertEquals(0, triggers.size());
+        }
+    }
+
+    @Test
+    public void pastTriggerRunsOnNextAdvance() {
+        TimeTriggers triggers = new TimeTriggers(null, 1000);
+        List<Long> fired = new ArrayList<>();
+        triggers.schedule(500, (level, time) -> fired.add(time));
+
+        triggers.advance(1001);
+        assertEquals(List.of(1001L), fired);
+        assertEquals(0, triggers.size());
+    }
+
+    @Test
+    public void dailyTriggerRunsOncePerAdvance() {
+        TimeTriggers triggers = new TimeTriggers(null, 100);
+        List<Long> fired = new ArrayList<>();
+        Registration registration = triggers.scheduleDaily(TimeEngine.NIGHT_START,
+                (level, time) -> fired.add(time));
+        assertEquals(12500, registration.getTime());
+
+        triggers.advance(12499);
+        assertEquals(List.of(), fired);
+        triggers.advance(12500);
+        assertEquals(List.of(12500L), fired);
+
+        // Jumping over several days only runs the trigger once.
+        triggers.advance(Time.DAY_TICKS * 10);
+        assertEquals(List.of(12500L, 36500L), fired);
+        assertEquals(Time.DAY_TICKS * 10 + 12500, registration.getTime());
+        assertEquals(1, triggers.size());
+
+        registration.cancel();
+        triggers.advance(Time.DAY_TICKS * 20);
+        assertEquals(2, fired.size());
+        assertEquals(0, triggers.size());
+    }
+
+    @Test
+    public void rewindDoesNotRunTriggers() {
+        TimeTriggers triggers = new TimeTriggers(null, 20000);
+        List<Long> fired = new ArrayList<>();
+        triggers.schedule(30000, (level, time) -> fired.add(time));
+        Registration daily = triggers.scheduleDaily(Time.NOON, (level, time) -> fired.add(time));
+        assertEquals(30000, daily.getTime());
+
+        triggers.rewind(1000);
+        assertEquals(1000, triggers.getTime());
+        assertEquals(6000, daily.getTime());
+        assertEquals(List.of(), fired);
+
+        triggers.advance(30000);
+        assertEquals(List.of(6000L, 30000L), fired);
+    }
+
+    @Test
+    public void shiftMovesTriggersWithTime() {
+        long start = Time.DAY_TICKS * 5;
+        TimeTriggers triggers = new TimeTriggers(null, start);
+        List<Long> fired = new ArrayList<>();
+        Registration once = triggers.schedule(start + 100, (level, time) -> fired.add(time));
+
+        triggers.shift(-Time.DAY_TICKS * 4);
+        assertEquals(Time.DAY_TICKS, triggers.getTime());
+        assertEquals(Time.DAY_TICKS + 100, once.getTime());
+
+        triggers.advance(Time.DAY_TICKS + 99);
+        assertEquals(List.of(), fired);
+        triggers.advance(Time.DAY_TICKS + 100);
+        assertEquals(List.of(Time.DAY_TICKS + 100L), fired);
+    }
+
+    @Test
+    public void failingTriggerDoesNotStopOthers() {
+        TimeTriggers triggers = new TimeTriggers(null, 0);
+        List<Long> fired = new ArrayList<>();
+        triggers.schedule(10, (level, time) -> {
+            throw new IllegalStateException("Test failure");
+        });
+        triggers.schedule(10, (level, time) -> fired.add(time));
+
+        triggers.advance(10);
+        assertEquals(List.of(10L), fired);
+        assertFalse(triggers.size() > 0);
+    }
+
+}